@@ -0,0 +1,410 @@
+package com.devsuperior.dscommerce.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.devsuperior.dscommerce.config.CompressorPool.Coding;
+import com.devsuperior.dscommerce.config.CompressorPool.CompressingStream;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Compresses JSON and NDJSON responses with {@code gzip} or {@code deflate}, whichever the
+ * client's {@code Accept-Encoding} prefers, once the body grows past
+ * {@code compression.min-response-size} bytes.
+ * <p>
+ * The body is held back until it passes the threshold or the response ends, so small
+ * responses go out unchanged, with their length, and large ones are compressed from the first
+ * byte. Streamed responses such as {@code /products/export} are compressed as they are written,
+ * in constant memory. Compressed responses drop their {@code Content-Length} and have a strong
+ * {@code ETag} turned weak, since the bytes on the wire are no longer the ones it names.
+ * Deflaters come from a {@link CompressorPool}.
+ * <p>
+ * A body written with non-blocking I/O is only compressed if it already was when the
+ * {@link WriteListener} is set: its end is signalled by completing the request rather than by
+ * returning from the filter chain, so the writer has to close the stream to end the encoding.
+ * One that sets its listener first goes out unchanged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CompressionFilter extends OncePerRequestFilter {
+
+	private final boolean enabled;
+	private final int minResponseSize;
+	private final CompressorPool pool;
+
+	public CompressionFilter(@Value("${compression.enabled}") boolean enabled,
+			@Value("${compression.min-response-size}") int minResponseSize,
+			@Value("${compression.level}") int level,
+			@Value("${compression.pool-size}") int poolSize) {
+		this.enabled = enabled;
+		this.minResponseSize = minResponseSize;
+		this.pool = new CompressorPool(level, poolSize);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (!enabled) {
+			chain.doFilter(request, response);
+			return;
+		}
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		Coding coding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		if (coding == null || request.getMethod().equals("HEAD")) {
+			chain.doFilter(request, response);
+			return;
+		}
+		CompressingResponse compressing = new CompressingResponse(response, coding);
+		boolean async = false;
+		try {
+			chain.doFilter(request, compressing);
+			async = request.isAsyncStarted();
+			if (!async) {
+				compressing.finish();
+			}
+		}
+		finally {
+			if (async) {
+				// The body is still being written; hold on to the deflater until the request ends
+				request.getAsyncContext().addListener(new ReleasingListener(compressing));
+			}
+			else {
+				compressing.release();
+			}
+		}
+	}
+
+	/**
+	 * The coding with the highest quality in {@code Accept-Encoding}, gzip on a tie, or null
+	 * when neither is acceptable.
+	 */
+	static Coding negotiate(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return null;
+		}
+		Double gzip = null;
+		Double deflate = null;
+		Double any = null;
+		for (String part : acceptEncoding.split(",")) {
+			String[] params = part.split(";");
+			String token = params[0].trim().toLowerCase(Locale.ROOT);
+			double quality = 1;
+			for (int i = 1; i < params.length; i++) {
+				String param = params[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						quality = Double.parseDouble(param.substring(2));
+					}
+					catch (NumberFormatException e) {
+						quality = 0;
+					}
+				}
+			}
+			switch (token) {
+				case "gzip", "x-gzip" -> gzip = quality;
+				case "deflate" -> deflate = quality;
+				case "*" -> any = quality;
+				default -> {
+				}
+			}
+		}
+		double gzipQuality = gzip != null ? gzip : any != null ? any : 0;
+		double deflateQuality = deflate != null ? deflate : any != null ? any : 0;
+		if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+			return Coding.GZIP;
+		}
+		return deflateQuality > 0 ? Coding.DEFLATE : null;
+	}
+
+	private static boolean compressible(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		String type = contentType.toLowerCase(Locale.ROOT);
+		return type.startsWith("application/json") || type.startsWith("application/x-ndjson")
+				|| type.contains("+json");
+	}
+
+	private class CompressingResponse extends HttpServletResponseWrapper {
+
+		private final Coding coding;
+		private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+		private OutputStream target;
+		private ServletOutputStream wire;
+		private CompressingStream compressor;
+		private long contentLength = -1;
+		private ServletOutputStream outputStream;
+		private PrintWriter writer;
+
+		CompressingResponse(HttpServletResponse response, Coding coding) {
+			super(response);
+			this.coding = coding;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			if (outputStream == null) {
+				outputStream = new ThresholdOutputStream();
+			}
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() {
+			if (writer == null) {
+				writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+						Charset.forName(getCharacterEncoding())));
+			}
+			return writer;
+		}
+
+		// The length is only known to be right if the body goes out as written.
+		@Override
+		public void setContentLength(int len) {
+			contentLength = len;
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			contentLength = len;
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				contentLength = Long.parseLong(value);
+			}
+			else {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+				contentLength = Long.parseLong(value);
+			}
+			else {
+				super.addHeader(name, value);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			if (target != null) {
+				target.flush();
+				super.flushBuffer();
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			if (target == null) {
+				pending.reset();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			if (target == null) {
+				pending.reset();
+				contentLength = -1;
+			}
+		}
+
+		/** Writes whatever is still held back and completes the encoding. */
+		void finish() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			}
+			if (target == null) {
+				if (pending.size() == 0) {
+					if (contentLength >= 0) {
+						super.setContentLengthLong(contentLength);
+					}
+					return;
+				}
+				start(false);
+			}
+			if (compressor != null) {
+				compressor.finish();
+			}
+		}
+
+		void release() {
+			if (compressor != null) {
+				compressor.release();
+			}
+		}
+
+		private void start(boolean overThreshold) throws IOException {
+			ServletOutputStream out = wire();
+			if (overThreshold && compressible(getContentType()) && !containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+				super.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+				String etag = getHeader(HttpHeaders.ETAG);
+				if (etag != null && etag.startsWith("\"")) {
+					super.setHeader(HttpHeaders.ETAG, "W/" + etag);
+				}
+				compressor = pool.open(coding, out);
+				target = compressor;
+			}
+			else {
+				if (!overThreshold || contentLength >= 0) {
+					super.setContentLengthLong(overThreshold ? contentLength : pending.size());
+				}
+				target = out;
+			}
+			pending.writeTo(target);
+			pending = null;
+		}
+
+		private ServletOutputStream wire() throws IOException {
+			if (wire == null) {
+				wire = getResponse().getOutputStream();
+			}
+			return wire;
+		}
+
+		private class ThresholdOutputStream extends ServletOutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (target == null) {
+					if (pending.size() + len <= minResponseSize) {
+						pending.write(b, off, len);
+						return;
+					}
+					start(true);
+				}
+				target.write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (target != null) {
+					target.flush();
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				finish();
+				wire().close();
+			}
+
+			// Held-back bytes sit in memory, so writes are only limited once the body is on its way.
+			@Override
+			public boolean isReady() {
+				return target == null || wire.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				ServletOutputStream out;
+				try {
+					out = wire();
+					if (target == null) {
+						// Blocking writes made so far go out as they are; the rest follows unchanged
+						if (contentLength >= 0) {
+							CompressingResponse.super.setContentLengthLong(contentLength);
+						}
+						target = out;
+						pending.writeTo(target);
+						pending = null;
+					}
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				out.setWriteListener(compressor == null ? writeListener : new FlushingListener(writeListener));
+			}
+		}
+
+		/**
+		 * Pushes out what the deflater still holds before the writer is told it may write again, so
+		 * compressed output never waits on a write that might not come.
+		 */
+		private class FlushingListener implements WriteListener {
+
+			private final WriteListener delegate;
+
+			FlushingListener(WriteListener delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public void onWritePossible() throws IOException {
+				compressor.flush();
+				if (wire.isReady()) {
+					delegate.onWritePossible();
+				}
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				release();
+				delegate.onError(t);
+			}
+		}
+	}
+
+	private static class ReleasingListener implements AsyncListener {
+
+		private final CompressingResponse response;
+
+		ReleasingListener(CompressingResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			response.release();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			response.release();
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			response.release();
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+}
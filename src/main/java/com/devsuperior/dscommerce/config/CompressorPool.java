@@ -0,0 +1,164 @@
+package com.devsuperior.dscommerce.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Reusable {@link Deflater}s for the {@code gzip} and {@code deflate} content codings.
+ * <p>
+ * A deflater holds a few hundred kilobytes of native zlib state, so creating one per response
+ * costs more than compressing a typical page. Streams opened here borrow a deflater and hand it
+ * back, reset, when they are released; up to {@code maxIdle} deflaters of each coding are kept
+ * and extra ones are ended at once. {@code gzip} framing (header, CRC-32 and length trailer) is
+ * written around a raw deflater, because {@link java.util.zip.GZIPOutputStream} always creates
+ * its own.
+ */
+public class CompressorPool {
+
+	public enum Coding {
+		GZIP, DEFLATE;
+
+		/** The token used in {@code Accept-Encoding} and {@code Content-Encoding}. */
+		public String token() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private final int level;
+	private final int maxIdle;
+	private final Queue<Deflater> gzip = new ConcurrentLinkedQueue<>();
+	private final Queue<Deflater> deflate = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger idleGzip = new AtomicInteger();
+	private final AtomicInteger idleDeflate = new AtomicInteger();
+	private final LongAdder created = new LongAdder();
+
+	public CompressorPool(int level, int maxIdle) {
+		this.level = level;
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Stream that compresses into {@code out} with a pooled deflater. {@link CompressingStream#finish()}
+	 * completes the encoding without closing {@code out}; the deflater goes back to the pool on
+	 * {@link CompressingStream#release()}, which is safe to call more than once and on failure.
+	 */
+	public CompressingStream open(Coding coding, OutputStream out) throws IOException {
+		Deflater deflater = (coding == Coding.GZIP ? gzip : deflate).poll();
+		if (deflater != null) {
+			idle(coding).decrementAndGet();
+		}
+		else {
+			deflater = new Deflater(level, coding == Coding.GZIP);
+			created.increment();
+		}
+		return new CompressingStream(coding, deflater, out);
+	}
+
+	/** Deflaters created since startup; stays flat once the pool is warm. */
+	public long created() {
+		return created.sum();
+	}
+
+	private AtomicInteger idle(Coding coding) {
+		return coding == Coding.GZIP ? idleGzip : idleDeflate;
+	}
+
+	private void release(Coding coding, Deflater deflater) {
+		deflater.reset();
+		if (idle(coding).incrementAndGet() <= maxIdle) {
+			(coding == Coding.GZIP ? gzip : deflate).offer(deflater);
+		}
+		else {
+			idle(coding).decrementAndGet();
+			deflater.end();
+		}
+	}
+
+	public class CompressingStream extends DeflaterOutputStream {
+
+		private final Coding coding;
+		private final CRC32 crc = new CRC32();
+		private boolean finished;
+		private boolean released;
+
+		CompressingStream(Coding coding, Deflater deflater, OutputStream out) throws IOException {
+			super(out, deflater, BUFFER_SIZE, true);
+			this.coding = coding;
+			if (coding == Coding.GZIP) {
+				out.write(GZIP_HEADER);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			checkNotReleased();
+			super.write(b, off, len);
+			if (coding == Coding.GZIP) {
+				crc.update(b, off, len);
+			}
+		}
+
+		@Override
+		public void finish() throws IOException {
+			if (finished) {
+				return;
+			}
+			checkNotReleased();
+			finished = true;
+			super.finish();
+			if (coding == Coding.GZIP) {
+				writeIntLe((int) crc.getValue());
+				writeIntLe((int) def.getBytesRead());
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				finish();
+				out.close();
+			}
+			finally {
+				release();
+			}
+		}
+
+		public void release() {
+			if (!released) {
+				released = true;
+				CompressorPool.this.release(coding, def);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			checkNotReleased();
+			super.flush();
+		}
+
+		// Once released the deflater may already be compressing someone else's response.
+		private void checkNotReleased() throws IOException {
+			if (released) {
+				throw new IOException("Compressing stream was released");
+			}
+		}
+
+		private void writeIntLe(int value) throws IOException {
+			out.write(value);
+			out.write(value >>> 8);
+			out.write(value >>> 16);
+			out.write(value >>> 24);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.devsuperior.dscommerce.config;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Payment;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.Role;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.StockRepository;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Loads the DSCommerce seed data into the in-memory repositories before the server starts
+ * accepting requests.
+ */
+@Component
+public class DatabaseSeeder {
+
+	private static final String IMG_URL = "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/%d-big.jpg";
+	private static final String DESCRIPTION = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+	private final CategoryRepository categoryRepository;
+	private final ProductRepository productRepository;
+	private final UserRepository userRepository;
+	private final OrderRepository orderRepository;
+	private final StockRepository stockRepository;
+	private final int initialStock;
+
+	public DatabaseSeeder(CategoryRepository categoryRepository, ProductRepository productRepository,
+			UserRepository userRepository, OrderRepository orderRepository, StockRepository stockRepository,
+			@Value("${stock.initial-quantity}") int initialStock) {
+		this.categoryRepository = categoryRepository;
+		this.productRepository = productRepository;
+		this.userRepository = userRepository;
+		this.orderRepository = orderRepository;
+		this.stockRepository = stockRepository;
+		this.initialStock = initialStock;
+	}
+
+	@PostConstruct
+	public void seed() {
+		Category books = categoryRepository.save(new Category(1L, "Livros"));
+		Category electronics = categoryRepository.save(new Category(2L, "Eletrônicos"));
+		Category computers = categoryRepository.save(new Category(3L, "Computadores"));
+
+		Product lordOfTheRings = product(1L, "The Lord of the Rings", 90.5, books);
+		product(2L, "Smart TV", 2190.0, electronics, computers);
+		Product macbook = product(3L, "Macbook Pro", 1250.0, computers);
+		product(4L, "PC Gamer", 1200.0, computers);
+		product(5L, "Rails for Dummies", 100.99, books);
+		product(6L, "PC Gamer Ex", 1350.0, computers);
+		product(7L, "PC Gamer X", 1350.0, computers);
+		product(8L, "PC Gamer Alfa", 1850.0, computers);
+		product(9L, "PC Gamer Tera", 1950.0, computers);
+		product(10L, "PC Gamer Y", 1700.0, computers);
+		product(11L, "PC Gamer Nitro", 1450.0, computers);
+		product(12L, "PC Gamer Card", 1850.0, computers);
+		product(13L, "PC Gamer Plus", 1350.0, computers);
+		product(14L, "PC Gamer Hera", 2250.0, computers);
+		product(15L, "PC Gamer Weed", 2200.0, computers);
+		product(16L, "PC Gamer Max", 2340.0, computers);
+		product(17L, "PC Gamer Turbo", 1280.0, computers);
+		product(18L, "PC Gamer Hot", 1450.0, computers);
+		product(19L, "PC Gamer Ez", 1750.0, computers);
+		product(20L, "PC Gamer Tr", 1650.0, computers);
+		product(21L, "PC Gamer Tx", 1680.0, computers);
+		product(22L, "PC Gamer Er", 1850.0, computers);
+		product(23L, "PC Gamer Min", 2250.0, computers);
+		product(24L, "PC Gamer Boo", 2350.0, computers);
+		product(25L, "PC Gamer Foo", 4170.0, computers);
+
+		Role client = new Role(1L, "ROLE_CLIENT");
+		Role admin = new Role(2L, "ROLE_ADMIN");
+
+		User maria = new User(1L, "Maria Brown", "maria@gmail.com", "988888888", LocalDate.parse("2001-07-25"), "123456");
+		maria.addRole(client);
+		userRepository.save(maria);
+
+		User alex = new User(2L, "Alex Green", "alex@gmail.com", "977777777", LocalDate.parse("1987-12-13"), "123456");
+		alex.addRole(client);
+		alex.addRole(admin);
+		userRepository.save(alex);
+
+		User ana = new User(3L, "Ana Silva", "ana@gmail.com", "966666666", LocalDate.parse("1995-03-10"), "123456");
+		ana.addRole(admin);
+		userRepository.save(ana);
+
+		Order order1 = new Order(1L, Instant.parse("2022-07-25T13:00:00Z"), OrderStatus.PAID, maria,
+				new Payment(1L, Instant.parse("2022-07-25T15:00:00Z")));
+		order1.getItems().add(new OrderItem(lordOfTheRings, 2, 90.5));
+		order1.getItems().add(new OrderItem(macbook, 1, 1250.0));
+		orderRepository.save(order1);
+
+		Order order2 = new Order(2L, Instant.parse("2022-07-29T15:50:00Z"), OrderStatus.DELIVERED, alex,
+				new Payment(2L, Instant.parse("2022-07-30T11:00:00Z")));
+		order2.getItems().add(new OrderItem(macbook, 1, 1250.0));
+		orderRepository.save(order2);
+
+		Order order3 = new Order(3L, Instant.parse("2022-08-03T14:20:00Z"), OrderStatus.WAITING_PAYMENT, maria, null);
+		order3.getItems().add(new OrderItem(lordOfTheRings, 1, 90.5));
+		orderRepository.save(order3);
+	}
+
+	private Product product(Long id, String name, Double price, Category... categories) {
+		Product product = new Product(id, name, DESCRIPTION, price, String.format(IMG_URL, id));
+		for (Category category : categories) {
+			product.getCategories().add(category);
+		}
+		stockRepository.setQuantity(id, initialStock);
+		return productRepository.save(product);
+	}
+}
@@ -0,0 +1,50 @@
+package com.devsuperior.dscommerce.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.devsuperior.dscommerce.repositories.DatasetScope;
+import com.devsuperior.dscommerce.services.DatasetService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Puts the dataset named by the {@code X-Dataset} header in scope for the rest of the request.
+ * Registered ahead of the bearer token check, so tokens are resolved against the fork as well.
+ * <p>
+ * The dataset is resolved once, here: an unknown or dropped id is answered with 404, and a lease
+ * keeps the fork in place until the request completes, even if it is dropped meanwhile.
+ */
+@Component
+public class DatasetInterceptor implements HandlerInterceptor {
+
+	private static final String LEASE = DatasetInterceptor.class.getName() + ".lease";
+
+	private final DatasetService datasetService;
+
+	public DatasetInterceptor(DatasetService datasetService) {
+		this.datasetService = datasetService;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		String dataset = request.getHeader(DatasetService.HEADER);
+		if (dataset == null) {
+			return true;
+		}
+		request.setAttribute(LEASE, datasetService.acquire(dataset));
+		DatasetScope.enter(dataset);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		DatasetScope.exit(null);
+		if (request.getAttribute(LEASE) instanceof DatasetService.Lease lease) {
+			request.removeAttribute(LEASE);
+			lease.close();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscommerce.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.services.AuthService;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Adds the role of the caller to the {@code http.server.requests} timers, which Spring already
+ * tags with method, route template and status: {@code admin}, {@code client}, or
+ * {@code anonymous} for routes without {@code @HasAnyRole} and rejected tokens.
+ */
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public ServerRequestObservationConvention serverRequestObservationConvention() {
+		return new DefaultServerRequestObservationConvention() {
+
+			@Override
+			public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+				return super.getLowCardinalityKeyValues(context).and(KeyValue.of("role", role(context)));
+			}
+		};
+	}
+
+	private static String role(ServerRequestObservationContext context) {
+		Object user = context.getCarrier().getAttribute(AuthService.AUTHENTICATED_USER);
+		if (!(user instanceof User authenticated)) {
+			return "anonymous";
+		}
+		return authenticated.hasRole("ROLE_ADMIN") ? "admin" : "client";
+	}
+}
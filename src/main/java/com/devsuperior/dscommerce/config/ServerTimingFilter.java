@@ -0,0 +1,146 @@
+package com.devsuperior.dscommerce.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Reports how long the server spent on each request in a {@code Server-Timing: app;dur=<ms>}
+ * header, so clients can tell server time from network time.
+ * <p>
+ * Headers cannot change once the response is committed, so the duration is taken when the
+ * body starts being written. For the usual JSON responses, which are serialized before anything
+ * reaches the socket, that is the whole handling time; for streamed ones such as
+ * {@code /products/export} it is the time to the first byte.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "Server-Timing";
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		TimedResponse timed = new TimedResponse(response, System.nanoTime());
+		try {
+			chain.doFilter(request, timed);
+		}
+		finally {
+			timed.stamp();
+		}
+	}
+
+	private static class TimedResponse extends HttpServletResponseWrapper {
+
+		private final long start;
+		private boolean stamped;
+		private ServletOutputStream outputStream;
+
+		TimedResponse(HttpServletResponse response, long start) {
+			super(response);
+			this.start = start;
+		}
+
+		void stamp() {
+			if (!stamped && !isCommitted()) {
+				setHeader(HEADER, String.format(Locale.ROOT, "app;dur=%.3f", (System.nanoTime() - start) / 1e6));
+			}
+			stamped = true;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (outputStream == null) {
+				outputStream = new StampingOutputStream(super.getOutputStream());
+			}
+			return outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			stamp();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			stamp();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			stamp();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			stamp();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			stamp();
+			super.sendRedirect(location);
+		}
+
+		private class StampingOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream delegate;
+
+			StampingOutputStream(ServletOutputStream delegate) {
+				this.delegate = delegate;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				stamp();
+				delegate.write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				stamp();
+				delegate.write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				stamp();
+				delegate.flush();
+			}
+
+			@Override
+			public void close() throws IOException {
+				stamp();
+				delegate.close();
+			}
+
+			@Override
+			public boolean isReady() {
+				return delegate.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				delegate.setWriteListener(writeListener);
+			}
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.devsuperior.dscommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.devsuperior.dscommerce.security.BearerTokenInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private final DatasetInterceptor datasetInterceptor;
+	private final BearerTokenInterceptor bearerTokenInterceptor;
+
+	public WebConfig(DatasetInterceptor datasetInterceptor, BearerTokenInterceptor bearerTokenInterceptor) {
+		this.datasetInterceptor = datasetInterceptor;
+		this.bearerTokenInterceptor = bearerTokenInterceptor;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(datasetInterceptor);
+		registry.addInterceptor(bearerTokenInterceptor);
+	}
+}
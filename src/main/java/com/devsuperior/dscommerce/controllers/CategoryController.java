@@ -0,0 +1,33 @@
+package com.devsuperior.dscommerce.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.services.CategoryService;
+
+@RestController
+@RequestMapping(value = "/categories")
+public class CategoryController {
+
+	private final CategoryService service;
+
+	public CategoryController(CategoryService service) {
+		this.service = service;
+	}
+
+	@GetMapping
+	public ResponseEntity<List<CategoryDTO>> findAll(WebRequest request) {
+		String etag = service.etag();
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		List<CategoryDTO> list = service.findAll();
+		return ResponseEntity.ok().eTag(etag).body(list);
+	}
+}
@@ -0,0 +1,42 @@
+package com.devsuperior.dscommerce.controllers;
+
+import java.net.URI;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.devsuperior.dscommerce.dto.DatasetDTO;
+import com.devsuperior.dscommerce.security.HasAnyRole;
+import com.devsuperior.dscommerce.services.DatasetService;
+
+@RestController
+@RequestMapping(value = "/datasets")
+public class DatasetController {
+
+	private final DatasetService service;
+
+	public DatasetController(DatasetService service) {
+		this.service = service;
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@PostMapping
+	public ResponseEntity<DatasetDTO> fork() {
+		DatasetDTO dto = service.fork();
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+				.buildAndExpand(dto.getId()).toUri();
+		return ResponseEntity.created(uri).body(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@DeleteMapping(value = "/{id}")
+	public ResponseEntity<Void> drop(@PathVariable String id) {
+		service.drop(id);
+		return ResponseEntity.noContent().build();
+	}
+}
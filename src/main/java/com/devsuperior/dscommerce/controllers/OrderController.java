@@ -0,0 +1,56 @@
+package com.devsuperior.dscommerce.controllers;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.devsuperior.dscommerce.dto.OrderBatchResultDTO;
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.security.HasAnyRole;
+import com.devsuperior.dscommerce.services.OrderService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping(value = "/orders")
+public class OrderController {
+
+	private final OrderService service;
+
+	public OrderController(OrderService service) {
+		this.service = service;
+	}
+
+	@HasAnyRole({ "ROLE_ADMIN", "ROLE_CLIENT" })
+	@GetMapping(value = "/{id}")
+	public ResponseEntity<OrderDTO> findById(@PathVariable Long id) {
+		OrderDTO dto = service.findById(id);
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole("ROLE_CLIENT")
+	@PostMapping
+	public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto) {
+		dto = service.insert(dto);
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+				.buildAndExpand(dto.getId()).toUri();
+		return ResponseEntity.created(uri).body(dto);
+	}
+
+	@HasAnyRole("ROLE_CLIENT")
+	@PostMapping(value = "/batch")
+	public ResponseEntity<List<OrderBatchResultDTO>> insertBatch(@RequestBody List<OrderDTO> dtos,
+			HttpServletRequest request) {
+		List<OrderBatchResultDTO> results = service.insertBatch(dtos, request.getRequestURI());
+		return ResponseEntity.ok(results);
+	}
+}
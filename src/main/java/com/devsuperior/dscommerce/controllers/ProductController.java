@@ -0,0 +1,133 @@
+package com.devsuperior.dscommerce.controllers;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.PageDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductImportReportDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.StockDTO;
+import com.devsuperior.dscommerce.security.HasAnyRole;
+import com.devsuperior.dscommerce.services.ProductJsonCache;
+import com.devsuperior.dscommerce.services.ProductService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping(value = "/products")
+public class ProductController {
+
+	private final ProductService service;
+
+	public ProductController(ProductService service) {
+		this.service = service;
+	}
+
+	@GetMapping(value = "/{id}")
+	public ResponseEntity<byte[]> findById(@PathVariable Long id, WebRequest request) {
+		ProductJsonCache.Entry product = service.findByIdAsJson(id);
+		if (request.checkNotModified(product.etag())) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(product.etag()).contentType(MediaType.APPLICATION_JSON).body(product.json());
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@GetMapping(value = "/cache")
+	public ResponseEntity<CacheStatsDTO> cacheStats() {
+		CacheStatsDTO dto = service.cacheStats();
+		return ResponseEntity.ok(dto);
+	}
+
+	@GetMapping
+	public ResponseEntity<PageDTO<ProductMinDTO>> findAll(
+			@RequestParam(name = "name", defaultValue = "") String name,
+			@RequestParam(name = "minPrice", required = false) Double minPrice,
+			@RequestParam(name = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(name = "page", defaultValue = "0") int page,
+			@RequestParam(name = "size", defaultValue = "20") int size) {
+		PageDTO<ProductMinDTO> dto = service.findAll(name, minPrice, maxPrice, Math.max(page, 0), Math.max(size, 1));
+		return ResponseEntity.ok(dto);
+	}
+
+	@GetMapping(value = "/export")
+	public void export(HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		service.export(response.getOutputStream());
+	}
+
+	@GetMapping(params = "cursor")
+	public ResponseEntity<CursorPageDTO<ProductMinDTO>> findAllByCursor(
+			@RequestParam(name = "name", defaultValue = "") String name,
+			@RequestParam(name = "minPrice", required = false) Double minPrice,
+			@RequestParam(name = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(name = "cursor") String cursor,
+			@RequestParam(name = "size", defaultValue = "20") int size) {
+		CursorPageDTO<ProductMinDTO> dto = service.findAllByCursor(name, minPrice, maxPrice, cursor, Math.max(size, 1));
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@PostMapping
+	public ResponseEntity<ProductDTO> insert(@RequestBody ProductDTO dto) {
+		dto = service.insert(dto);
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+				.buildAndExpand(dto.getId()).toUri();
+		return ResponseEntity.created(uri).body(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<ProductImportReportDTO> importProducts(HttpServletRequest request) throws IOException {
+		ProductImportReportDTO dto = service.importProducts(request.getInputStream(), request.getRequestURI());
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@PutMapping(value = "/{id}")
+	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto) {
+		dto = service.update(id, dto);
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@GetMapping(value = "/{id}/stock")
+	public ResponseEntity<StockDTO> findStock(@PathVariable Long id) {
+		StockDTO dto = service.findStock(id);
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@PutMapping(value = "/{id}/stock")
+	public ResponseEntity<StockDTO> updateStock(@PathVariable Long id, @Valid @RequestBody StockDTO dto) {
+		dto = service.updateStock(id, dto);
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole("ROLE_ADMIN")
+	@DeleteMapping(value = "/{id}")
+	public ResponseEntity<Void> delete(@PathVariable Long id) {
+		service.delete(id);
+		return ResponseEntity.noContent().build();
+	}
+}
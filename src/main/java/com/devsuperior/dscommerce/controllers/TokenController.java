@@ -0,0 +1,33 @@
+package com.devsuperior.dscommerce.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devsuperior.dscommerce.dto.AccessTokenDTO;
+import com.devsuperior.dscommerce.services.TokenService;
+
+@RestController
+@RequestMapping(value = "/oauth2")
+public class TokenController {
+
+	private final TokenService service;
+
+	public TokenController(TokenService service) {
+		this.service = service;
+	}
+
+	@PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+	public ResponseEntity<AccessTokenDTO> token(
+			@RequestHeader(name = "Authorization", required = false) String authorization,
+			@RequestParam(name = "grant_type", required = false) String grantType,
+			@RequestParam(name = "username", required = false) String username,
+			@RequestParam(name = "password", required = false) String password) {
+		AccessTokenDTO dto = service.issue(authorization, grantType, username, password);
+		return ResponseEntity.ok().header("Cache-Control", "no-store").body(dto);
+	}
+}
@@ -0,0 +1,43 @@
+package com.devsuperior.dscommerce.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.PageDTO;
+import com.devsuperior.dscommerce.dto.UserDTO;
+import com.devsuperior.dscommerce.security.HasAnyRole;
+import com.devsuperior.dscommerce.services.OrderService;
+import com.devsuperior.dscommerce.services.UserService;
+
+@RestController
+@RequestMapping(value = "/users")
+public class UserController {
+
+	private final UserService service;
+	private final OrderService orderService;
+
+	public UserController(UserService service, OrderService orderService) {
+		this.service = service;
+		this.orderService = orderService;
+	}
+
+	@HasAnyRole({ "ROLE_ADMIN", "ROLE_CLIENT" })
+	@GetMapping(value = "/me")
+	public ResponseEntity<UserDTO> getMe() {
+		UserDTO dto = service.getMe();
+		return ResponseEntity.ok(dto);
+	}
+
+	@HasAnyRole({ "ROLE_ADMIN", "ROLE_CLIENT" })
+	@GetMapping(value = "/me/orders")
+	public ResponseEntity<PageDTO<OrderDTO>> findMyOrders(
+			@RequestParam(name = "page", defaultValue = "0") int page,
+			@RequestParam(name = "size", defaultValue = "20") int size) {
+		PageDTO<OrderDTO> dto = orderService.findMine(Math.max(page, 0), Math.max(size, 1));
+		return ResponseEntity.ok(dto);
+	}
+}
@@ -0,0 +1,33 @@
+package com.devsuperior.dscommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class AccessTokenDTO {
+
+	@JsonProperty("access_token")
+	private String accessToken;
+
+	@JsonProperty("token_type")
+	private String tokenType;
+
+	@JsonProperty("expires_in")
+	private long expiresIn;
+
+	public AccessTokenDTO(String accessToken, String tokenType, long expiresIn) {
+		this.accessToken = accessToken;
+		this.tokenType = tokenType;
+		this.expiresIn = expiresIn;
+	}
+
+	public String getAccessToken() {
+		return accessToken;
+	}
+
+	public String getTokenType() {
+		return tokenType;
+	}
+
+	public long getExpiresIn() {
+		return expiresIn;
+	}
+}
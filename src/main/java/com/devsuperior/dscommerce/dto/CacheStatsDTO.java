@@ -0,0 +1,44 @@
+package com.devsuperior.dscommerce.dto;
+
+public class CacheStatsDTO {
+
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long staleReads;
+	private final long size;
+	private final boolean verifying;
+
+	public CacheStatsDTO(long hits, long misses, long evictions, long staleReads, long size, boolean verifying) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.staleReads = staleReads;
+		this.size = size;
+		this.verifying = verifying;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public long getStaleReads() {
+		return staleReads;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public boolean isVerifying() {
+		return verifying;
+	}
+}
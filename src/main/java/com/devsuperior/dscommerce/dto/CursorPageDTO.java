@@ -0,0 +1,40 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+/**
+ * Keyset page: {@code nextCursor} is passed back as {@code cursor} to fetch the rows that follow,
+ * and is null on the last page.
+ */
+public class CursorPageDTO<T> {
+
+	private final List<T> content;
+	private final int size;
+	private final String nextCursor;
+
+	public CursorPageDTO(List<T> content, int size, String nextCursor) {
+		this.content = content;
+		this.size = size;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public int getNumberOfElements() {
+		return content.size();
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean isLast() {
+		return nextCursor == null;
+	}
+}
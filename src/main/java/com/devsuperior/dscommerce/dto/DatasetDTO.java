@@ -0,0 +1,14 @@
+package com.devsuperior.dscommerce.dto;
+
+public class DatasetDTO {
+
+	private String id;
+
+	public DatasetDTO(String id) {
+		this.id = id;
+	}
+
+	public String getId() {
+		return id;
+	}
+}
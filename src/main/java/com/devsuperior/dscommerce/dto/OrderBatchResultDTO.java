@@ -0,0 +1,44 @@
+package com.devsuperior.dscommerce.dto;
+
+/**
+ * Outcome of one order of a batch: the status a single {@code POST /orders} would have answered,
+ * with either the created order or the error body.
+ */
+public class OrderBatchResultDTO {
+
+	private final int index;
+	private final int status;
+	private final OrderDTO order;
+	private final CustomError error;
+
+	private OrderBatchResultDTO(int index, int status, OrderDTO order, CustomError error) {
+		this.index = index;
+		this.status = status;
+		this.order = order;
+		this.error = error;
+	}
+
+	public static OrderBatchResultDTO created(int index, OrderDTO order) {
+		return new OrderBatchResultDTO(index, 201, order, null);
+	}
+
+	public static OrderBatchResultDTO failed(int index, CustomError error) {
+		return new OrderBatchResultDTO(index, error.getStatus(), null, error);
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public OrderDTO getOrder() {
+		return order;
+	}
+
+	public CustomError getError() {
+		return error;
+	}
+}
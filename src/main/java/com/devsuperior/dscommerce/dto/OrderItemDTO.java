@@ -0,0 +1,47 @@
+package com.devsuperior.dscommerce.dto;
+
+import com.devsuperior.dscommerce.entities.OrderItem;
+
+public class OrderItemDTO {
+
+	private Long productId;
+	private String name;
+	private Double price;
+	private Integer quantity;
+	private String imgUrl;
+
+	public OrderItemDTO() {
+	}
+
+	public OrderItemDTO(OrderItem entity) {
+		productId = entity.getProduct().getId();
+		name = entity.getProduct().getName();
+		price = entity.getPrice();
+		quantity = entity.getQuantity();
+		imgUrl = entity.getProduct().getImgUrl();
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public String getImgUrl() {
+		return imgUrl;
+	}
+
+	public Double getSubTotal() {
+		return price * quantity;
+	}
+}
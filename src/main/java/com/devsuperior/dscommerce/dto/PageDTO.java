@@ -0,0 +1,57 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+/**
+ * Offset page in the same JSON shape as a Spring Data {@code Page}.
+ */
+public class PageDTO<T> {
+
+	private final List<T> content;
+	private final int number;
+	private final int size;
+	private final long totalElements;
+
+	public PageDTO(List<T> content, int number, int size, long totalElements) {
+		this.content = content;
+		this.number = number;
+		this.size = size;
+		this.totalElements = totalElements;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public long getTotalElements() {
+		return totalElements;
+	}
+
+	public int getTotalPages() {
+		return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+	}
+
+	public int getNumberOfElements() {
+		return content.size();
+	}
+
+	public boolean isFirst() {
+		return number == 0;
+	}
+
+	public boolean isLast() {
+		return number + 1 >= getTotalPages();
+	}
+
+	public boolean isEmpty() {
+		return content.isEmpty();
+	}
+}
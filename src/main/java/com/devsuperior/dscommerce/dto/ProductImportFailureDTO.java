@@ -0,0 +1,30 @@
+package com.devsuperior.dscommerce.dto;
+
+/**
+ * Row of an import that was not inserted: its position in the body, counted from zero, and the
+ * error body a single {@code POST /products} would have answered.
+ */
+public class ProductImportFailureDTO {
+
+	private final int index;
+	private final int status;
+	private final CustomError error;
+
+	public ProductImportFailureDTO(int index, CustomError error) {
+		this.index = index;
+		this.status = error.getStatus();
+		this.error = error;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public CustomError getError() {
+		return error;
+	}
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a product import: how many rows were read and inserted, and why each of the
+ * others was rejected, in row order.
+ */
+public class ProductImportReportDTO {
+
+	private int total;
+	private int imported;
+	private final List<ProductImportFailureDTO> failures = new ArrayList<>();
+
+	public int getTotal() {
+		return total;
+	}
+
+	public int getImported() {
+		return imported;
+	}
+
+	public int getFailed() {
+		return failures.size();
+	}
+
+	public List<ProductImportFailureDTO> getFailures() {
+		return failures;
+	}
+
+	public void addImported(int count) {
+		total += count;
+		imported += count;
+	}
+
+	public void addFailure(int index, CustomError error) {
+		total++;
+		failures.add(new ProductImportFailureDTO(index, error));
+	}
+}
@@ -0,0 +1,29 @@
+package com.devsuperior.dscommerce.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class StockDTO {
+
+	private Long productId;
+
+	@NotNull(message = "Campo requerido")
+	@PositiveOrZero(message = "A quantidade não pode ser negativa")
+	private Integer quantity;
+
+	public StockDTO() {
+	}
+
+	public StockDTO(Long productId, Integer quantity) {
+		this.productId = productId;
+		this.quantity = quantity;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+}
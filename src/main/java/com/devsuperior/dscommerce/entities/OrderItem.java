@@ -0,0 +1,45 @@
+package com.devsuperior.dscommerce.entities;
+
+public class OrderItem {
+
+	private Product product;
+	private Integer quantity;
+	private Double price;
+
+	public OrderItem() {
+	}
+
+	public OrderItem(Product product, Integer quantity, Double price) {
+		this.product = product;
+		this.quantity = quantity;
+		this.price = price;
+	}
+
+	public Product getProduct() {
+		return product;
+	}
+
+	public void setProduct(Product product) {
+		this.product = product;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(Integer quantity) {
+		this.quantity = quantity;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public Double getSubTotal() {
+		return price * quantity;
+	}
+}
@@ -0,0 +1,6 @@
+package com.devsuperior.dscommerce.entities;
+
+public enum OrderStatus {
+
+	WAITING_PAYMENT, PAID, SHIPPED, DELIVERED, CANCELED;
+}
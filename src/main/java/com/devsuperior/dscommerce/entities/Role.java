@@ -0,0 +1,46 @@
+package com.devsuperior.dscommerce.entities;
+
+import java.util.Objects;
+
+public class Role {
+
+	private Long id;
+	private String authority;
+
+	public Role() {
+	}
+
+	public Role(Long id, String authority) {
+		this.id = id;
+		this.authority = authority;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getAuthority() {
+		return authority;
+	}
+
+	public void setAuthority(String authority) {
+		this.authority = authority;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		Role role = (Role) o;
+		return Objects.equals(authority, role.authority);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(authority);
+	}
+}
@@ -0,0 +1,47 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscommerce.entities.Category;
+
+@Repository
+public class CategoryRepository {
+
+	private final ConcurrentNavigableMap<Long, Category> categories = new ConcurrentSkipListMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong version = new AtomicLong();
+
+	public List<Category> findAll() {
+		return new ArrayList<>(categories.values());
+	}
+
+	/**
+	 * Counter bumped on every write, usable as a validator for the whole category list.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	public Optional<Category> findById(Long id) {
+		return Optional.ofNullable(categories.get(id));
+	}
+
+	public Category save(Category category) {
+		if (category.getId() == null) {
+			category.setId(sequence.incrementAndGet());
+		}
+		else {
+			sequence.accumulateAndGet(category.getId(), Math::max);
+		}
+		categories.put(category.getId(), category);
+		version.incrementAndGet();
+		return category;
+	}
+}
@@ -0,0 +1,53 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.function.Supplier;
+
+/**
+ * The forked dataset the current thread reads and writes, if any.
+ * <p>
+ * Repositories consult it on every call: with no dataset in scope they work on the shared
+ * stores, otherwise on the fork's view of them. Work handed to other threads, such as a
+ * parallel stream, has to carry the dataset along with {@link #call(String, Supplier)}.
+ */
+public final class DatasetScope {
+
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private DatasetScope() {
+	}
+
+	/** Id of the dataset in scope, or null for the shared stores. */
+	public static String current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Puts {@code dataset} in scope for the current thread.
+	 *
+	 * @return the dataset that was in scope before, to hand back to {@link #exit(String)}
+	 */
+	public static String enter(String dataset) {
+		String previous = CURRENT.get();
+		CURRENT.set(dataset);
+		return previous;
+	}
+
+	public static void exit(String previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set(previous);
+		}
+	}
+
+	public static <T> T call(String dataset, Supplier<T> work) {
+		String previous = enter(dataset);
+		try {
+			return work.get();
+		}
+		finally {
+			exit(previous);
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order ids of each client, kept as a sorted primitive set per user id.
+ * <p>
+ * Ownership checks are a binary search and listings are a slice of the set, so neither needs
+ * to load or scan orders.
+ */
+class OrderOwnershipIndex {
+
+	private static final long[] EMPTY = new long[0];
+
+	private final Map<Long, LongSet> ordersByUser = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	void add(long userId, long orderId) {
+		lock.writeLock().lock();
+		try {
+			ordersByUser.computeIfAbsent(userId, k -> new LongSet()).add(orderId);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	void addAll(long userId, long[] orderIds) {
+		lock.writeLock().lock();
+		try {
+			LongSet set = ordersByUser.computeIfAbsent(userId, k -> new LongSet());
+			for (long orderId : orderIds) {
+				set.add(orderId);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	boolean owns(long userId, long orderId) {
+		lock.readLock().lock();
+		try {
+			LongSet set = ordersByUser.get(userId);
+			return set != null && set.contains(orderId);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	int count(long userId) {
+		lock.readLock().lock();
+		try {
+			LongSet set = ordersByUser.get(userId);
+			return set == null ? 0 : set.size;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Up to {@code limit} order ids of the user in ascending order, skipping the first {@code offset}.
+	 */
+	long[] slice(long userId, long offset, int limit) {
+		lock.readLock().lock();
+		try {
+			LongSet set = ordersByUser.get(userId);
+			if (set == null || offset >= set.size) {
+				return EMPTY;
+			}
+			int from = (int) offset;
+			return Arrays.copyOfRange(set.ids, from, Math.min(from + limit, set.size));
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Sorted, growable array of ids; new orders get increasing ids, so adds are usually appends. */
+	private static class LongSet {
+
+		private long[] ids = new long[4];
+		private int size;
+
+		void add(long id) {
+			int pos = size;
+			if (size > 0 && ids[size - 1] >= id) {
+				pos = Arrays.binarySearch(ids, 0, size, id);
+				if (pos >= 0) {
+					return;
+				}
+				pos = -pos - 1;
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			ids[pos] = id;
+			size++;
+		}
+
+		boolean contains(long id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+	}
+}
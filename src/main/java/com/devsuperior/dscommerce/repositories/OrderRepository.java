@@ -0,0 +1,228 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+
+/**
+ * Orders, with a precomputed view of each and an index of the orders of every client.
+ * <p>
+ * Orders placed in a forked dataset are kept in the fork's {@link Overlay overlays}, together
+ * with their views and their own ownership sets; listings in a fork merge them with the
+ * shared orders the fork still sees.
+ */
+@Repository
+public class OrderRepository {
+
+	private final ConcurrentNavigableMap<Long, Order> orders = new ConcurrentSkipListMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	// Read model for GET /orders/{id}, rebuilt whenever an order is saved (inserted or paid).
+	private final ConcurrentMap<Long, OrderDTO> views = new ConcurrentHashMap<>();
+	private final OrderOwnershipIndex ownership = new OrderOwnershipIndex();
+	private final ConcurrentMap<String, Fork> forks = new ConcurrentHashMap<>();
+
+	public void fork(String dataset) {
+		forks.put(dataset, new Fork());
+	}
+
+	public void drop(String dataset) {
+		forks.remove(dataset);
+	}
+
+	public Optional<Order> findById(Long id) {
+		Order stored = orders.get(id);
+		Fork fork = fork();
+		return Optional.ofNullable(fork == null ? stored : fork.orders.read(id, stored));
+	}
+
+	/**
+	 * Precomputed view of the order, with client, payment, item names and total already resolved.
+	 */
+	public Optional<OrderDTO> findViewById(Long id) {
+		OrderDTO stored = views.get(id);
+		Fork fork = fork();
+		return Optional.ofNullable(fork == null ? stored : fork.views.read(id, stored));
+	}
+
+	public boolean existsById(Long id) {
+		return findById(id).isPresent();
+	}
+
+	/**
+	 * Whether the order belongs to the client, answered from the ownership index.
+	 */
+	public boolean isOwnedBy(Long id, Long clientId) {
+		boolean owned = ownership.owns(clientId, id);
+		Fork fork = fork();
+		if (fork == null) {
+			return owned;
+		}
+		Optional<Order> slot = fork.orders.slot(id);
+		return slot == null ? owned : slot.filter(o -> o.getClient().getId().equals(clientId)).isPresent();
+	}
+
+	/**
+	 * Views of the client's orders in id order, skipping the first {@code offset}.
+	 */
+	public List<OrderDTO> findViewsByClientId(Long clientId, long offset, int limit) {
+		Fork fork = fork();
+		if (fork != null) {
+			List<Long> ids = fork.orderIds(ownership.slice(clientId, 0, Integer.MAX_VALUE), clientId);
+			int from = (int) Math.min(offset, ids.size());
+			List<OrderDTO> result = new ArrayList<>();
+			for (Long id : ids.subList(from, Math.min(from + limit, ids.size()))) {
+				findViewById(id).ifPresent(result::add);
+			}
+			return result;
+		}
+		List<OrderDTO> result = new ArrayList<>();
+		for (long id : ownership.slice(clientId, offset, limit)) {
+			OrderDTO view = views.get(id);
+			if (view != null) {
+				result.add(view);
+			}
+		}
+		return result;
+	}
+
+	public long countByClientId(Long clientId) {
+		Fork fork = fork();
+		if (fork != null) {
+			return fork.orderIds(ownership.slice(clientId, 0, Integer.MAX_VALUE), clientId).size();
+		}
+		return ownership.count(clientId);
+	}
+
+	public boolean existsByProductId(Long productId) {
+		Fork fork = fork();
+		for (Order order : orders.values()) {
+			if ((fork == null || !fork.orders.shadows(order.getId())) && contains(order, productId)) {
+				return true;
+			}
+		}
+		if (fork != null) {
+			for (Order order : fork.orders.values()) {
+				if (contains(order, productId)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean contains(Order order, Long productId) {
+		for (OrderItem item : order.getItems()) {
+			if (item.getProduct().getId().equals(productId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Order save(Order order) {
+		if (order.getId() == null) {
+			order.setId(sequence.incrementAndGet());
+		}
+		else {
+			sequence.accumulateAndGet(order.getId(), Math::max);
+		}
+		Fork fork = fork();
+		if (fork != null) {
+			fork.put(order);
+			return order;
+		}
+		preserve(order.getId());
+		orders.put(order.getId(), order);
+		views.put(order.getId(), new OrderDTO(order));
+		ownership.add(order.getClient().getId(), order.getId());
+		return order;
+	}
+
+	/**
+	 * Saves new orders of one client as a group: ids are taken from the sequence in a single
+	 * block and the ownership index is updated once.
+	 */
+	public List<Order> saveAll(Long clientId, List<Order> batch) {
+		long first = sequence.getAndAdd(batch.size()) + 1;
+		Fork fork = fork();
+		long[] ids = new long[batch.size()];
+		for (int i = 0; i < batch.size(); i++) {
+			Order order = batch.get(i);
+			order.setId(first + i);
+			ids[i] = order.getId();
+			if (fork != null) {
+				fork.put(order);
+				continue;
+			}
+			preserve(order.getId());
+			orders.put(order.getId(), order);
+			views.put(order.getId(), new OrderDTO(order));
+		}
+		if (fork == null) {
+			ownership.addAll(clientId, ids);
+		}
+		return batch;
+	}
+
+	private Fork fork() {
+		String dataset = DatasetScope.current();
+		if (dataset == null) {
+			return null;
+		}
+		Fork fork = forks.get(dataset);
+		if (fork == null) {
+			throw new IllegalStateException("Dataset " + dataset + " was dropped");
+		}
+		return fork;
+	}
+
+	// Called before the shared store writes the order, so open forks keep the previous one.
+	private void preserve(Long id) {
+		for (Fork fork : forks.values()) {
+			if (!fork.orders.shadows(id)) {
+				fork.views.preserve(id, views.get(id));
+				fork.orders.preserve(id, orders.get(id));
+			}
+		}
+	}
+
+	private static class Fork {
+
+		private final Overlay<Long, Order> orders = new Overlay<>();
+		private final Overlay<Long, OrderDTO> views = new Overlay<>();
+		// Orders placed in the fork, by client id.
+		private final ConcurrentMap<Long, Set<Long>> ownership = new ConcurrentHashMap<>();
+
+		void put(Order order) {
+			views.put(order.getId(), new OrderDTO(order));
+			orders.put(order.getId(), order);
+			ownership.computeIfAbsent(order.getClient().getId(), k -> new ConcurrentSkipListSet<>()).add(order.getId());
+		}
+
+		/** Ids of the client's orders in the fork, given the ids the shared index holds for the client. */
+		List<Long> orderIds(long[] stored, Long clientId) {
+			Set<Long> ids = new TreeSet<>(ownership.getOrDefault(clientId, Set.of()));
+			for (long id : stored) {
+				if (!orders.shadows(id)) {
+					ids.add(id);
+				}
+			}
+			return new ArrayList<>(ids);
+		}
+	}
+}
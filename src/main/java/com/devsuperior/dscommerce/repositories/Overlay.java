@@ -0,0 +1,111 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Entries of a forked dataset that differ from a shared store, keyed like the store.
+ * <p>
+ * A key held by the overlay shadows the store: its slot carries the value the fork sees, or is
+ * empty when the entry does not exist in the fork. Other keys read through to the store. Before
+ * the store changes a key it calls {@link #preserve(Comparable, Object)} on every overlay, so a
+ * fork keeps seeing the value the key had when the fork was taken. Creating an overlay copies
+ * nothing; it grows with the writes made on either side afterwards.
+ */
+class Overlay<K extends Comparable<K>, V> {
+
+	private final ConcurrentNavigableMap<K, Optional<V>> slots = new ConcurrentSkipListMap<>();
+
+	/** The slot of {@code key}, or null when the key reads through to the store. */
+	Optional<V> slot(K key) {
+		return slots.get(key);
+	}
+
+	boolean shadows(K key) {
+		return slots.containsKey(key);
+	}
+
+	/**
+	 * What the fork sees under {@code key}, given the value the store holds. The store has to be
+	 * read first: a store write preserves the previous value here before it happens, so a store
+	 * value newer than the fork is always shadowed by the time the slot is checked.
+	 */
+	V read(K key, V stored) {
+		Optional<V> slot = slots.get(key);
+		return slot != null ? slot.orElse(null) : stored;
+	}
+
+	/** Keeps {@code previous}, null for absent, unless the fork already shadows the key. */
+	void preserve(K key, V previous) {
+		slots.putIfAbsent(key, Optional.ofNullable(previous));
+	}
+
+	void put(K key, V value) {
+		slots.put(key, Optional.of(value));
+	}
+
+	void remove(K key) {
+		slots.put(key, Optional.empty());
+	}
+
+	/** Values present in the fork's own slots, in key order. */
+	List<V> values() {
+		List<V> result = new ArrayList<>();
+		for (Optional<V> slot : slots.values()) {
+			slot.ifPresent(result::add);
+		}
+		return result;
+	}
+
+	/**
+	 * The fork's view of a key-ordered result read from the store: rows whose key is shadowed are
+	 * dropped and the present slots that pass {@code filter} are merged in, keeping key order.
+	 */
+	List<V> merge(List<V> stored, Function<V, K> keyOf, Predicate<V> filter) {
+		return merge(stored, slots, keyOf, filter);
+	}
+
+	/** Number of keys after {@code key} the fork shadows. Counting walks them. */
+	int countAfter(K key) {
+		return slots.tailMap(key, false).size();
+	}
+
+	/**
+	 * Like {@link #merge(List, Function, Predicate)} for a store result that starts after
+	 * {@code after}, cut at {@code limit} values. The result is complete as long as
+	 * {@code stored} holds {@code limit} plus {@link #countAfter(Comparable)} rows, or every
+	 * matching row of the store.
+	 */
+	List<V> mergeAfter(List<V> stored, K after, int limit, Function<V, K> keyOf, Predicate<V> filter) {
+		List<V> result = merge(stored, slots.tailMap(after, false), keyOf, filter);
+		return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+	}
+
+	private List<V> merge(List<V> stored, Map<K, Optional<V>> ownSlots, Function<V, K> keyOf, Predicate<V> filter) {
+		List<V> result = new ArrayList<>(stored.size());
+		Iterator<Map.Entry<K, Optional<V>>> own = ownSlots.entrySet().iterator();
+		Map.Entry<K, Optional<V>> next = own.hasNext() ? own.next() : null;
+		for (V value : stored) {
+			K key = keyOf.apply(value);
+			while (next != null && next.getKey().compareTo(key) <= 0) {
+				next.getValue().filter(filter).ifPresent(result::add);
+				next = own.hasNext() ? own.next() : null;
+			}
+			if (!slots.containsKey(key)) {
+				result.add(value);
+			}
+		}
+		while (next != null) {
+			next.getValue().filter(filter).ifPresent(result::add);
+			next = own.hasNext() ? own.next() : null;
+		}
+		return result;
+	}
+}
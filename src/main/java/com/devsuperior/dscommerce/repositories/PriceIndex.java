@@ -0,0 +1,276 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted index from price to ids, kept in primitive arrays ordered by (price, id).
+ * <p>
+ * Prices are stored as longs whose signed order matches the order of the original doubles, so
+ * range lookups are binary searches over {@code long[]} with no boxing. Entries live in chunks of
+ * bounded size, so an insert or removal only shifts entries within one chunk no matter how large
+ * the catalog grows.
+ * <p>
+ * The key of each id is also kept in a {@code long[]} indexed by id, so filtering an id-ordered
+ * list by price is one array read per id, and a wide range can be answered in id order by walking
+ * the ids instead of sorting what the chunks return.
+ */
+class PriceIndex {
+
+	private static final int CHUNK_CAPACITY = 1024;
+
+	private final List<Chunk> chunks = new ArrayList<>(List.of(new Chunk()));
+	private long[] keyById = new long[64];
+	private final BitSet indexed = new BitSet();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	static long sortableKey(double price) {
+		long bits = Double.doubleToLongBits(price);
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+
+	void put(long id, double price) {
+		lock.writeLock().lock();
+		try {
+			putLocked(id, sortableKey(price));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Indexes {@code prices[i]} under {@code ids[i]} for every i, taking the write lock once.
+	 */
+	void putAll(long[] ids, double[] prices) {
+		lock.writeLock().lock();
+		try {
+			for (int i = 0; i < ids.length; i++) {
+				putLocked(ids[i], sortableKey(prices[i]));
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void putLocked(long id, long key) {
+		int slot = slot(id);
+		if (indexed.get(slot)) {
+			long previous = keyById[slot];
+			if (previous == key) {
+				return;
+			}
+			removeEntry(previous, id);
+		}
+		else {
+			if (slot >= keyById.length) {
+				keyById = Arrays.copyOf(keyById, Math.max(slot + 1, keyById.length * 2));
+			}
+			indexed.set(slot);
+		}
+		keyById[slot] = key;
+		insertEntry(key, id);
+	}
+
+	private static int slot(long id) {
+		if (id < 0 || id >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Id " + id + " is outside the range the price index can hold");
+		}
+		return (int) id;
+	}
+
+	void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			if (id >= 0 && id < keyById.length && indexed.get((int) id)) {
+				indexed.clear((int) id);
+				removeEntry(keyById[(int) id], id);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids priced within [{@code min}, {@code max}], in ascending id order. Either bound may be null.
+	 * <p>
+	 * The chunks give the number of matches up front. Few matches are copied out of the chunks and
+	 * sorted; when sorting them would cost more than visiting every indexed id, the ids are walked
+	 * in order instead and the matches picked by their key.
+	 */
+	long[] range(Double min, Double max) {
+		long fromKey = min == null ? Long.MIN_VALUE : sortableKey(min);
+		long toKey = max == null ? Long.MAX_VALUE : sortableKey(max);
+		lock.readLock().lock();
+		try {
+			if (fromKey > toKey) {
+				return new long[0];
+			}
+			int first = chunkFor(fromKey, Long.MIN_VALUE);
+			int firstPos = chunks.get(first).position(fromKey, Long.MIN_VALUE);
+			int last = chunkFor(toKey, Long.MAX_VALUE);
+			int lastPos = chunks.get(last).position(toKey, Long.MAX_VALUE);
+			int count = lastPos - firstPos;
+			for (int c = first; c < last; c++) {
+				count += chunks.get(c).size;
+			}
+			long[] result = new long[Math.max(count, 0)];
+			if (count <= 0) {
+				return result;
+			}
+			int log = 32 - Integer.numberOfLeadingZeros(count);
+			if ((long) count * log < indexed.length()) {
+				int n = 0;
+				for (int c = first, pos = firstPos; n < count; c++, pos = 0) {
+					Chunk chunk = chunks.get(c);
+					int length = Math.min(chunk.size - pos, count - n);
+					System.arraycopy(chunk.ids, pos, result, n, length);
+					n += length;
+				}
+				Arrays.sort(result);
+			}
+			else {
+				int n = 0;
+				for (int id = indexed.nextSetBit(0); id >= 0 && n < count; id = indexed.nextSetBit(id + 1)) {
+					long key = keyById[id];
+					if (key >= fromKey && key <= toKey) {
+						result[n++] = id;
+					}
+				}
+			}
+			return result;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The ids of {@code ids} priced within [{@code min}, {@code max}], keeping their order. Either
+	 * bound may be null; ids that are not indexed are dropped.
+	 */
+	long[] retain(List<Long> ids, Double min, Double max) {
+		long fromKey = min == null ? Long.MIN_VALUE : sortableKey(min);
+		long toKey = max == null ? Long.MAX_VALUE : sortableKey(max);
+		long[] result = new long[ids.size()];
+		int n = 0;
+		lock.readLock().lock();
+		try {
+			for (long id : ids) {
+				if (id >= 0 && id < keyById.length && indexed.get((int) id)) {
+					long key = keyById[(int) id];
+					if (key >= fromKey && key <= toKey) {
+						result[n++] = id;
+					}
+				}
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+		return n == result.length ? result : Arrays.copyOf(result, n);
+	}
+
+	private void insertEntry(long key, long id) {
+		int c = chunkFor(key, id);
+		Chunk chunk = chunks.get(c);
+		chunk.insert(key, id);
+		if (chunk.size == CHUNK_CAPACITY) {
+			chunks.add(c + 1, chunk.split());
+		}
+	}
+
+	private void removeEntry(long key, long id) {
+		int c = chunkFor(key, id);
+		Chunk chunk = chunks.get(c);
+		if (chunk.remove(key, id) && chunk.size == 0 && chunks.size() > 1) {
+			chunks.remove(c);
+		}
+	}
+
+	/** Last chunk whose first entry is not greater than (key, id), or the first chunk. */
+	private int chunkFor(long key, long id) {
+		int low = 0;
+		int high = chunks.size() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			Chunk chunk = chunks.get(mid);
+			if (less(key, id, chunk.keys[0], chunk.ids[0])) {
+				high = mid - 1;
+			}
+			else {
+				low = mid;
+			}
+		}
+		return low;
+	}
+
+	private static boolean less(long key, long id, long otherKey, long otherId) {
+		return key < otherKey || (key == otherKey && id < otherId);
+	}
+
+	/** Run of (key, id) entries in ascending order, stored in two parallel arrays. */
+	private static class Chunk {
+
+		private long[] keys = new long[16];
+		private long[] ids = new long[16];
+		private int size;
+
+		void insert(long key, long id) {
+			int pos = position(key, id);
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			keys[pos] = key;
+			ids[pos] = id;
+			size++;
+		}
+
+		boolean remove(long key, long id) {
+			int pos = position(key, id);
+			if (pos < size && keys[pos] == key && ids[pos] == id) {
+				System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+				System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+				size--;
+				return true;
+			}
+			return false;
+		}
+
+		/** Moves the upper half of the entries into a new chunk. */
+		Chunk split() {
+			int half = size / 2;
+			Chunk upper = new Chunk();
+			upper.keys = Arrays.copyOfRange(keys, half, keys.length);
+			upper.ids = Arrays.copyOfRange(ids, half, ids.length);
+			upper.size = size - half;
+			size = half;
+			return upper;
+		}
+
+		/** First position whose (key, id) is not less than the given pair. */
+		int position(long key, long id) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (less(keys[mid], ids[mid], key, id)) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscommerce.entities.Product;
+
+/**
+ * Products, indexed by name trigrams and by price.
+ * <p>
+ * Forked datasets see the catalog through an {@link Overlay}: their writes stay in the overlay
+ * and never reach the indexes, and searches in a fork merge the indexed result with the
+ * overlay. New products take their ids from the shared sequence, so an id created in one
+ * dataset is never reused by another.
+ */
+@Repository
+public class ProductRepository {
+
+	private final ConcurrentNavigableMap<Long, Product> products = new ConcurrentSkipListMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong writes = new AtomicLong();
+	private final TrigramIndex nameIndex = new TrigramIndex();
+	private final PriceIndex priceIndex = new PriceIndex();
+	private final ConcurrentMap<String, Overlay<Long, Product>> forks = new ConcurrentHashMap<>();
+
+	public void fork(String dataset) {
+		forks.put(dataset, new Overlay<>());
+	}
+
+	public void drop(String dataset) {
+		forks.remove(dataset);
+	}
+
+	public Optional<Product> findById(Long id) {
+		Product stored = products.get(id);
+		Overlay<Long, Product> fork = fork();
+		return Optional.ofNullable(fork == null ? stored : fork.read(id, stored));
+	}
+
+	public boolean existsById(Long id) {
+		return findById(id).isPresent();
+	}
+
+	/**
+	 * Live view of all products in id order. Iterating it copies nothing, and it reflects writes
+	 * made while it is being iterated without ever failing. In a forked dataset it is a copy.
+	 */
+	public Iterable<Product> findAllInIdOrder() {
+		Overlay<Long, Product> fork = fork();
+		if (fork != null) {
+			return fork.merge(new ArrayList<>(products.values()), Product::getId, p -> true);
+		}
+		return products.values();
+	}
+
+	/**
+	 * Products whose name contains {@code name}, ignoring case, in id order.
+	 */
+	public List<Product> searchByName(String name) {
+		return search(name, null, null);
+	}
+
+	private List<Product> searchStoredByName(String name) {
+		if (name.isEmpty()) {
+			return new ArrayList<>(products.values());
+		}
+		List<Product> result = new ArrayList<>();
+		for (Long id : nameIndex.search(name)) {
+			Product product = products.get(id);
+			if (product != null) {
+				result.add(product);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Products whose name contains {@code name}, ignoring case, and whose price lies within
+	 * [{@code minPrice}, {@code maxPrice}], in id order. Null bounds are open.
+	 */
+	public List<Product> search(String name, Double minPrice, Double maxPrice) {
+		List<Product> stored = searchStored(name, minPrice, maxPrice);
+		Overlay<Long, Product> fork = fork();
+		if (fork == null) {
+			return stored;
+		}
+		return fork.merge(stored, Product::getId, matcher(name, minPrice, maxPrice));
+	}
+
+	private List<Product> searchStored(String name, Double minPrice, Double maxPrice) {
+		if (minPrice == null && maxPrice == null) {
+			return searchStoredByName(name);
+		}
+		long[] ids = name.isEmpty() ? priceIndex.range(minPrice, maxPrice)
+				: priceIndex.retain(nameIndex.search(name), minPrice, maxPrice);
+		List<Product> result = new ArrayList<>(ids.length);
+		for (long id : ids) {
+			addIfPresent(result, id);
+		}
+		return result;
+	}
+
+	/**
+	 * Up to {@code limit} products with id greater than {@code afterId} that match the same
+	 * filters as {@link #search(String, Double, Double)}, in id order.
+	 * <p>
+	 * The walk seeks to {@code afterId}, in the id-ordered map or in the name index, filters from
+	 * there and stops at {@code limit} matches, so its cost depends neither on how deep into the
+	 * catalog {@code afterId} is nor on how many products match in total.
+	 */
+	public List<Product> searchAfter(String name, Double minPrice, Double maxPrice, long afterId, int limit) {
+		Overlay<Long, Product> fork = fork();
+		if (fork == null) {
+			return searchStoredAfter(name, minPrice, maxPrice, afterId, limit);
+		}
+		// Every id the fork shadows hides at most one stored match
+		int wanted = (int) Math.min(Integer.MAX_VALUE, (long) limit + fork.countAfter(afterId));
+		List<Product> stored = searchStoredAfter(name, minPrice, maxPrice, afterId, wanted);
+		return fork.mergeAfter(stored, afterId, limit, Product::getId, matcher(name, minPrice, maxPrice));
+	}
+
+	private List<Product> searchStoredAfter(String name, Double minPrice, Double maxPrice, long afterId, int limit) {
+		Predicate<Product> inRange = priceRange(minPrice, maxPrice);
+		List<Product> result = new ArrayList<>(Math.min(limit, 64));
+		if (name.isEmpty()) {
+			for (Product product : products.tailMap(afterId, false).values()) {
+				if (result.size() == limit) {
+					break;
+				}
+				if (inRange.test(product)) {
+					result.add(product);
+				}
+			}
+			return result;
+		}
+		List<Long> ids = nameIndex.search(name, afterId, id -> {
+			Product product = products.get(id);
+			return product != null && inRange.test(product);
+		}, limit);
+		for (long id : ids) {
+			addIfPresent(result, id);
+		}
+		return result;
+	}
+
+	private static Predicate<Product> matcher(String name, Double minPrice, Double maxPrice) {
+		String normalized = TrigramIndex.normalize(name);
+		return priceRange(minPrice, maxPrice).and(p -> TrigramIndex.normalize(p.getName()).contains(normalized));
+	}
+
+	private static Predicate<Product> priceRange(Double minPrice, Double maxPrice) {
+		if (minPrice == null && maxPrice == null) {
+			return p -> true;
+		}
+		return p -> p.getPrice() != null
+				&& (minPrice == null || p.getPrice() >= minPrice)
+				&& (maxPrice == null || p.getPrice() <= maxPrice);
+	}
+
+	private void addIfPresent(List<Product> result, long id) {
+		Product product = products.get(id);
+		if (product != null) {
+			result.add(product);
+		}
+	}
+
+	public Product save(Product product) {
+		if (product.getId() == null) {
+			product.setId(sequence.incrementAndGet());
+		}
+		else {
+			sequence.accumulateAndGet(product.getId(), Math::max);
+		}
+		product.setVersion(writes.incrementAndGet());
+		Overlay<Long, Product> fork = fork();
+		if (fork != null) {
+			fork.put(product.getId(), product);
+			return product;
+		}
+		preserve(product.getId());
+		products.put(product.getId(), product);
+		nameIndex.put(product.getId(), product.getName());
+		if (product.getPrice() != null) {
+			priceIndex.put(product.getId(), product.getPrice());
+		}
+		else {
+			priceIndex.remove(product.getId());
+		}
+		return product;
+	}
+
+	/**
+	 * Inserts new products in one step: ids come from a single block of the sequence, and each
+	 * index is updated under one lock acquisition for the whole batch. Every product must have a
+	 * price.
+	 */
+	public List<Product> saveAll(List<Product> batch) {
+		long first = sequence.getAndAdd(batch.size()) + 1;
+		Overlay<Long, Product> fork = fork();
+		long[] ids = new long[batch.size()];
+		String[] names = new String[batch.size()];
+		double[] prices = new double[batch.size()];
+		for (int i = 0; i < batch.size(); i++) {
+			Product product = batch.get(i);
+			product.setId(first + i);
+			product.setVersion(writes.incrementAndGet());
+			if (fork != null) {
+				fork.put(product.getId(), product);
+				continue;
+			}
+			preserve(product.getId());
+			products.put(product.getId(), product);
+			ids[i] = product.getId();
+			names[i] = product.getName();
+			prices[i] = product.getPrice();
+		}
+		if (fork != null) {
+			return batch;
+		}
+		nameIndex.putAll(ids, names);
+		priceIndex.putAll(ids, prices);
+		return batch;
+	}
+
+	public void deleteById(Long id) {
+		Overlay<Long, Product> fork = fork();
+		if (fork != null) {
+			fork.remove(id);
+			return;
+		}
+		preserve(id);
+		products.remove(id);
+		nameIndex.remove(id);
+		priceIndex.remove(id);
+	}
+
+	private Overlay<Long, Product> fork() {
+		String dataset = DatasetScope.current();
+		if (dataset == null) {
+			return null;
+		}
+		Overlay<Long, Product> fork = forks.get(dataset);
+		if (fork == null) {
+			throw new IllegalStateException("Dataset " + dataset + " was dropped");
+		}
+		return fork;
+	}
+
+	// Called before the shared store writes the product, so open forks keep the previous value.
+	private void preserve(Long id) {
+		for (Overlay<Long, Product> fork : forks.values()) {
+			if (!fork.shadows(id)) {
+				fork.preserve(id, products.get(id));
+			}
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Repository;
+
+/**
+ * Units in stock per product, each held in its own atomic counter.
+ * <p>
+ * Reservations decrement the counters with compare-and-set, so orders for different products
+ * never contend and orders for the same product never block one another. A multi-item
+ * reservation takes every line or none: if one line runs short, the lines already taken are
+ * given back before it returns.
+ * <p>
+ * A forked dataset takes its own copy of a counter the first time it touches the product; until
+ * then it reads the shared one, which preserves its value in the fork before it changes.
+ */
+@Repository
+public class StockRepository {
+
+	private final ConcurrentMap<Long, AtomicInteger> stock = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Overlay<Long, AtomicInteger>> forks = new ConcurrentHashMap<>();
+
+	public void fork(String dataset) {
+		forks.put(dataset, new Overlay<>());
+	}
+
+	public void drop(String dataset) {
+		forks.remove(dataset);
+	}
+
+	public OptionalInt findQuantity(Long productId) {
+		AtomicInteger counter = stock.get(productId);
+		Overlay<Long, AtomicInteger> fork = fork();
+		if (fork != null) {
+			counter = fork.read(productId, counter);
+		}
+		return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.get());
+	}
+
+	public void setQuantity(Long productId, int quantity) {
+		Overlay<Long, AtomicInteger> fork = fork();
+		if (fork != null) {
+			AtomicInteger counter = counter(productId);
+			if (counter != null) {
+				counter.set(quantity);
+			}
+			else {
+				fork.put(productId, new AtomicInteger(quantity));
+			}
+			return;
+		}
+		preserve(productId);
+		stock.computeIfAbsent(productId, k -> new AtomicInteger()).set(quantity);
+	}
+
+	public void deleteByProductId(Long productId) {
+		Overlay<Long, AtomicInteger> fork = fork();
+		if (fork != null) {
+			fork.remove(productId);
+			return;
+		}
+		preserve(productId);
+		stock.remove(productId);
+	}
+
+	/**
+	 * Takes the given quantity of every product, or nothing at all.
+	 *
+	 * @return the id of a product that did not have enough units, or empty when all were reserved
+	 */
+	public OptionalLong reserve(Map<Long, Integer> quantities) {
+		List<Map.Entry<Long, Integer>> taken = new ArrayList<>(quantities.size());
+		for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+			if (!take(line.getKey(), line.getValue())) {
+				for (Map.Entry<Long, Integer> undo : taken) {
+					give(undo.getKey(), undo.getValue());
+				}
+				return OptionalLong.of(line.getKey());
+			}
+			taken.add(line);
+		}
+		return OptionalLong.empty();
+	}
+
+	public void release(Map<Long, Integer> quantities) {
+		quantities.forEach(this::give);
+	}
+
+	private boolean take(Long productId, int quantity) {
+		AtomicInteger counter = counter(productId);
+		if (counter == null) {
+			return false;
+		}
+		while (true) {
+			int available = counter.get();
+			if (available < quantity) {
+				return false;
+			}
+			if (counter.compareAndSet(available, available - quantity)) {
+				return true;
+			}
+		}
+	}
+
+	private void give(Long productId, int quantity) {
+		AtomicInteger counter = counter(productId);
+		if (counter != null) {
+			counter.addAndGet(quantity);
+		}
+	}
+
+	/** The counter to update: the shared one, or the fork's own copy of it. */
+	private AtomicInteger counter(Long productId) {
+		Overlay<Long, AtomicInteger> fork = fork();
+		if (fork == null) {
+			preserve(productId);
+			return stock.get(productId);
+		}
+		Optional<AtomicInteger> slot = fork.slot(productId);
+		if (slot == null) {
+			AtomicInteger shared = stock.get(productId);
+			fork.preserve(productId, shared == null ? null : new AtomicInteger(shared.get()));
+			slot = fork.slot(productId);
+		}
+		return slot.orElse(null);
+	}
+
+	private Overlay<Long, AtomicInteger> fork() {
+		String dataset = DatasetScope.current();
+		if (dataset == null) {
+			return null;
+		}
+		Overlay<Long, AtomicInteger> fork = forks.get(dataset);
+		if (fork == null) {
+			throw new IllegalStateException("Dataset " + dataset + " was dropped");
+		}
+		return fork;
+	}
+
+	// Called before the shared counter changes, so open forks keep a copy of its current value.
+	private void preserve(Long productId) {
+		for (Overlay<Long, AtomicInteger> fork : forks.values()) {
+			if (!fork.shadows(productId)) {
+				AtomicInteger counter = stock.get(productId);
+				fork.preserve(productId, counter == null ? null : new AtomicInteger(counter.get()));
+			}
+		}
+	}
+}
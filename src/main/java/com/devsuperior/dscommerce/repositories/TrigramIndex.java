@@ -0,0 +1,228 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Case-insensitive substring index over names, keyed by the trigrams of each name.
+ * <p>
+ * A query looks up the posting list of every trigram in the search term, intersects them and
+ * checks the surviving candidates against the indexed name, so the result is exactly what a
+ * {@code contains} scan would return. Terms shorter than three characters fall back to a scan
+ * of the indexed names. Results are in ascending id order.
+ */
+class TrigramIndex {
+
+	private final Map<Long, PostingList> postings = new HashMap<>();
+	private final TreeMap<Long, String> names = new TreeMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	static String normalize(String name) {
+		return name.toUpperCase(Locale.ROOT);
+	}
+
+	void put(long id, String name) {
+		lock.writeLock().lock();
+		try {
+			putLocked(id, normalize(name));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Indexes {@code names[i]} under {@code ids[i]} for every i, taking the write lock once.
+	 */
+	void putAll(long[] ids, String[] names) {
+		String[] normalized = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			normalized[i] = normalize(names[i]);
+		}
+		lock.writeLock().lock();
+		try {
+			for (int i = 0; i < ids.length; i++) {
+				putLocked(ids[i], normalized[i]);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void putLocked(long id, String normalized) {
+		String previous = names.put(id, normalized);
+		if (normalized.equals(previous)) {
+			return;
+		}
+		if (previous != null) {
+			for (long trigram : trigrams(previous)) {
+				PostingList list = postings.get(trigram);
+				if (list != null && list.remove(id) && list.isEmpty()) {
+					postings.remove(trigram);
+				}
+			}
+		}
+		for (long trigram : trigrams(normalized)) {
+			postings.computeIfAbsent(trigram, k -> new PostingList()).add(id);
+		}
+	}
+
+	void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			String previous = names.remove(id);
+			if (previous == null) {
+				return;
+			}
+			for (long trigram : trigrams(previous)) {
+				PostingList list = postings.get(trigram);
+				if (list != null && list.remove(id) && list.isEmpty()) {
+					postings.remove(trigram);
+				}
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids whose name contains {@code term}, ignoring case, in ascending order.
+	 */
+	List<Long> search(String term) {
+		return search(term, Long.MIN_VALUE, id -> true, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * The first {@code limit} ids greater than {@code afterId} whose name contains {@code term},
+	 * ignoring case, and that pass {@code accept}, in ascending order. The walk enters the
+	 * shortest posting list at {@code afterId} and stops at {@code limit}, so the ids before the
+	 * cursor and the matches after the last one returned are never checked.
+	 */
+	List<Long> search(String term, long afterId, LongPredicate accept, int limit) {
+		String normalized = normalize(term);
+		lock.readLock().lock();
+		try {
+			if (normalized.length() < 3) {
+				return scan(normalized, afterId, accept, limit);
+			}
+			long[] grams = trigrams(normalized);
+			PostingList[] lists = new PostingList[grams.length];
+			for (int i = 0; i < grams.length; i++) {
+				lists[i] = postings.get(grams[i]);
+				if (lists[i] == null) {
+					return List.of();
+				}
+			}
+			Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+			List<Long> result = new ArrayList<>();
+			PostingList smallest = lists[0];
+			for (int i = smallest.indexAfter(afterId); i < smallest.size && result.size() < limit; i++) {
+				long id = smallest.ids[i];
+				if (containsInAll(lists, id) && names.get(id).contains(normalized) && accept.test(id)) {
+					result.add(id);
+				}
+			}
+			return result;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private List<Long> scan(String normalized, long afterId, LongPredicate accept, int limit) {
+		List<Long> result = new ArrayList<>();
+		for (Map.Entry<Long, String> entry : names.tailMap(afterId, false).entrySet()) {
+			if (result.size() == limit) {
+				break;
+			}
+			if (entry.getValue().contains(normalized) && accept.test(entry.getKey())) {
+				result.add(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	private static boolean containsInAll(PostingList[] lists, long id) {
+		for (int i = 1; i < lists.length; i++) {
+			if (!lists[i].contains(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Distinct trigrams of {@code s}, each packed as three UTF-16 units in one long. */
+	static long[] trigrams(String s) {
+		if (s.length() < 3) {
+			return new long[0];
+		}
+		long[] result = new long[s.length() - 2];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+		}
+		return Arrays.stream(result).distinct().toArray();
+	}
+
+	/** Sorted, growable array of ids; appends of increasing ids are the common case. */
+	private static class PostingList {
+
+		private long[] ids = new long[4];
+		private int size;
+
+		void add(long id) {
+			if (size > 0 && ids[size - 1] >= id) {
+				int pos = Arrays.binarySearch(ids, 0, size, id);
+				if (pos >= 0) {
+					return;
+				}
+				insertAt(-pos - 1, id);
+				return;
+			}
+			insertAt(size, id);
+		}
+
+		boolean remove(long id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos < 0) {
+				return false;
+			}
+			System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+			size--;
+			return true;
+		}
+
+		boolean contains(long id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+
+		/** Position of the first id greater than {@code id}. */
+		int indexAfter(long id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			return pos >= 0 ? pos + 1 : -pos - 1;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		private void insertAt(int pos, long id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			ids[pos] = id;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.dscommerce.entities.User;
+
+/**
+ * Users, by id and by email. Forked datasets keep the users they write in their own
+ * {@link Overlay overlays}.
+ */
+@Repository
+public class UserRepository {
+
+	private final ConcurrentNavigableMap<Long, User> users = new ConcurrentSkipListMap<>();
+	private final ConcurrentMap<String, User> usersByEmail = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final ConcurrentMap<String, Fork> forks = new ConcurrentHashMap<>();
+
+	public void fork(String dataset) {
+		forks.put(dataset, new Fork());
+	}
+
+	public void drop(String dataset) {
+		forks.remove(dataset);
+	}
+
+	public Optional<User> findById(Long id) {
+		User stored = users.get(id);
+		Fork fork = fork();
+		return Optional.ofNullable(fork == null ? stored : fork.users.read(id, stored));
+	}
+
+	public Optional<User> findByEmail(String email) {
+		User stored = usersByEmail.get(email);
+		Fork fork = fork();
+		return Optional.ofNullable(fork == null ? stored : fork.usersByEmail.read(email, stored));
+	}
+
+	public User save(User user) {
+		if (user.getId() == null) {
+			user.setId(sequence.incrementAndGet());
+		}
+		else {
+			sequence.accumulateAndGet(user.getId(), Math::max);
+		}
+		Fork fork = fork();
+		if (fork != null) {
+			fork.users.put(user.getId(), user);
+			fork.usersByEmail.put(user.getEmail(), user);
+			return user;
+		}
+		for (Fork open : forks.values()) {
+			open.users.preserve(user.getId(), users.get(user.getId()));
+			open.usersByEmail.preserve(user.getEmail(), usersByEmail.get(user.getEmail()));
+		}
+		users.put(user.getId(), user);
+		usersByEmail.put(user.getEmail(), user);
+		return user;
+	}
+
+	private Fork fork() {
+		String dataset = DatasetScope.current();
+		if (dataset == null) {
+			return null;
+		}
+		Fork fork = forks.get(dataset);
+		if (fork == null) {
+			throw new IllegalStateException("Dataset " + dataset + " was dropped");
+		}
+		return fork;
+	}
+
+	private static class Fork {
+
+		private final Overlay<Long, User> users = new Overlay<>();
+		private final Overlay<String, User> usersByEmail = new Overlay<>();
+	}
+}
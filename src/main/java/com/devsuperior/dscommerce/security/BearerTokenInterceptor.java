@@ -0,0 +1,59 @@
+package com.devsuperior.dscommerce.security;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.services.AuthService;
+import com.devsuperior.dscommerce.services.TokenService;
+import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
+import com.devsuperior.dscommerce.services.exceptions.UnauthorizedException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Resolves the bearer token of each request and enforces {@link HasAnyRole}.
+ */
+@Component
+public class BearerTokenInterceptor implements HandlerInterceptor {
+
+	private static final String BEARER = "Bearer ";
+
+	private final TokenService tokenService;
+
+	public BearerTokenInterceptor(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod method)) {
+			return true;
+		}
+		HasAnyRole required = method.getMethodAnnotation(HasAnyRole.class);
+		if (required == null) {
+			return true;
+		}
+
+		String authorization = request.getHeader("Authorization");
+		if (authorization == null || !authorization.startsWith(BEARER)) {
+			throw new UnauthorizedException("Full authentication is required to access this resource");
+		}
+		Optional<User> user = tokenService.introspect(authorization.substring(BEARER.length()).trim());
+		if (user.isEmpty()) {
+			throw new UnauthorizedException("Invalid token");
+		}
+		request.setAttribute(AuthService.AUTHENTICATED_USER, user.get());
+
+		for (String role : required.value()) {
+			if (user.get().hasRole(role)) {
+				return true;
+			}
+		}
+		throw new ForbiddenException("Access denied");
+	}
+}
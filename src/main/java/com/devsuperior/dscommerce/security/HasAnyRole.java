@@ -0,0 +1,16 @@
+package com.devsuperior.dscommerce.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a controller method to authenticated users holding at least one of the given roles.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HasAnyRole {
+
+	String[] value();
+}
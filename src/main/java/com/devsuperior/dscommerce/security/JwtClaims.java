@@ -0,0 +1,8 @@
+package com.devsuperior.dscommerce.security;
+
+/**
+ * Claims carried by an access token: the user it was issued to and its lifetime, in epoch
+ * seconds.
+ */
+public record JwtClaims(long userId, long issuedAt, long expiresAt) {
+}
@@ -0,0 +1,68 @@
+package com.devsuperior.dscommerce.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encodes {@link JwtClaims} as HS256 JSON Web Tokens and verifies them locally against
+ * {@link JwtKeySet}, with no lookup of issued tokens.
+ */
+@Component
+public class JwtCodec {
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final JwtKeySet keys;
+	private final ObjectMapper objectMapper;
+
+	public JwtCodec(JwtKeySet keys, ObjectMapper objectMapper) {
+		this.keys = keys;
+		this.objectMapper = objectMapper;
+	}
+
+	public String encode(JwtClaims claims) {
+		JwtKeySet.Key key = keys.signingKey();
+		String payload = "{\"sub\":\"" + claims.userId() + "\",\"iat\":" + claims.issuedAt()
+				+ ",\"exp\":" + claims.expiresAt() + "}";
+		String signingInput = key.encodedHeader() + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+		byte[] bytes = signingInput.getBytes(StandardCharsets.US_ASCII);
+		return signingInput + "." + ENCODER.encodeToString(key.sign(bytes));
+	}
+
+	/**
+	 * Claims of {@code token} when it was signed by a key of the set, or null when it is
+	 * malformed, signed with an unknown key or tampered with. Expiry is left to the caller.
+	 */
+	public JwtClaims decode(String token) {
+		int first = token.indexOf('.');
+		int second = token.indexOf('.', first + 1);
+		if (first < 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+			return null;
+		}
+		JwtKeySet.Key key = keys.forHeader(token.substring(0, first));
+		if (key == null) {
+			return null;
+		}
+		try {
+			byte[] signature = DECODER.decode(token.substring(second + 1));
+			byte[] signingInput = token.substring(0, second).getBytes(StandardCharsets.US_ASCII);
+			if (!MessageDigest.isEqual(signature, key.sign(signingInput))) {
+				return null;
+			}
+			JsonNode payload = objectMapper.readTree(DECODER.decode(token.substring(first + 1, second)));
+			return new JwtClaims(Long.parseLong(payload.path("sub").asText()), payload.path("iat").asLong(),
+					payload.path("exp").asLong());
+		}
+		catch (IllegalArgumentException | IOException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.devsuperior.dscommerce.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * HS256 keys that sign and verify access tokens, identified by key id.
+ * <p>
+ * {@code security.jwt.keys} lists {@code kid:base64-secret} pairs separated by commas. The first
+ * signs new tokens and every one of them verifies, so a key can be rotated out by moving it down
+ * the list until its tokens have expired. When the list is empty a random key is generated at
+ * start-up and tokens do not survive a restart.
+ * <p>
+ * The set is built once. Tokens are only accepted with the exact header this set issues, so a
+ * key is found by looking the encoded header up instead of decoding it, and each thread keeps
+ * its own initialized {@link Mac} per key.
+ */
+@Component
+public class JwtKeySet {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private final Key signingKey;
+	private final Map<String, Key> keysByHeader = new HashMap<>();
+
+	public JwtKeySet(@Value("${security.jwt.keys}") String keys) {
+		Key first = null;
+		for (String entry : keys.split(",")) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			int colon = entry.indexOf(':');
+			if (colon <= 0) {
+				throw new IllegalArgumentException("security.jwt.keys entries must be kid:base64-secret");
+			}
+			Key key = new Key(entry.substring(0, colon).trim(), Base64.getDecoder().decode(entry.substring(colon + 1).trim()));
+			keysByHeader.put(key.encodedHeader, key);
+			if (first == null) {
+				first = key;
+			}
+		}
+		if (first == null) {
+			byte[] secret = new byte[32];
+			new SecureRandom().nextBytes(secret);
+			first = new Key("generated", secret);
+			keysByHeader.put(first.encodedHeader, first);
+		}
+		signingKey = first;
+	}
+
+	public Key signingKey() {
+		return signingKey;
+	}
+
+	/** The key whose tokens start with {@code encodedHeader}, or null when there is none. */
+	public Key forHeader(String encodedHeader) {
+		return keysByHeader.get(encodedHeader);
+	}
+
+	public static final class Key {
+
+		private final String encodedHeader;
+		private final ThreadLocal<Mac> mac;
+
+		private Key(String id, byte[] secret) {
+			if (secret.length < 32) {
+				throw new IllegalArgumentException("HS256 key " + id + " must have at least 256 bits");
+			}
+			String header = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + id + "\"}";
+			this.encodedHeader = Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(header.getBytes(StandardCharsets.UTF_8));
+			SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+			this.mac = ThreadLocal.withInitial(() -> {
+				try {
+					Mac m = Mac.getInstance(ALGORITHM);
+					m.init(spec);
+					return m;
+				}
+				catch (GeneralSecurityException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+
+		public String encodedHeader() {
+			return encodedHeader;
+		}
+
+		/** HMAC-SHA256 of {@code data}. */
+		public byte[] sign(byte[] data) {
+			return mac.get().doFinal(data);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counters for rejected requests, next to the per-route timers Spring records as
+ * {@code http.server.requests}.
+ * <p>
+ * {@code dscommerce.validation.failures} counts every field error reported with a 422, whether
+ * the whole request or one row of a batch or import was rejected, tagged by field and message.
+ * Indexes and keys are stripped from the field path, so {@code items[37].quantity} is counted as
+ * {@code items[].quantity}. {@code dscommerce.security.rejections} counts 401 and 403 responses,
+ * tagged by status and reason. Both tag sets are bounded by the fixed messages of the application.
+ */
+@Component
+public class ApiMetrics {
+
+	private static final Pattern INDEX = Pattern.compile("\\[[^\\]]*\\]");
+
+	private final MeterRegistry registry;
+
+	public ApiMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	public void validationFailed(String field, String message) {
+		Counter.builder("dscommerce.validation.failures")
+				.description("Field errors reported with status 422")
+				.tag("field", INDEX.matcher(field).replaceAll("[]"))
+				.tag("message", message)
+				.register(registry)
+				.increment();
+	}
+
+	public void securityRejected(int status, String reason) {
+		Counter.builder("dscommerce.security.rejections")
+				.description("Requests answered with status 401 or 403")
+				.tag("status", String.valueOf(status))
+				.tag("reason", reason)
+				.register(registry)
+				.increment();
+	}
+}
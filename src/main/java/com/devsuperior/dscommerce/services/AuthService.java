@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
+import com.devsuperior.dscommerce.services.exceptions.UnauthorizedException;
+
+@Service
+public class AuthService {
+
+	/** Request attribute holding the {@link User} resolved from the bearer token. */
+	public static final String AUTHENTICATED_USER = AuthService.class.getName() + ".USER";
+
+	public User authenticated() {
+		RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+		User user = (User) attributes.getAttribute(AUTHENTICATED_USER, RequestAttributes.SCOPE_REQUEST);
+		if (user == null) {
+			throw new UnauthorizedException("Invalid user");
+		}
+		return user;
+	}
+
+	public void validateSelfOrAdmin(Long userId) {
+		User me = authenticated();
+		if (!me.hasRole("ROLE_ADMIN") && !me.getId().equals(userId)) {
+			throw new ForbiddenException("Access denied");
+		}
+	}
+}
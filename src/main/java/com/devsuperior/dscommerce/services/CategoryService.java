@@ -0,0 +1,29 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+
+@Service
+public class CategoryService {
+
+	private final CategoryRepository repository;
+
+	public CategoryService(CategoryRepository repository) {
+		this.repository = repository;
+	}
+
+	public List<CategoryDTO> findAll() {
+		return repository.findAll().stream().map(CategoryDTO::new).toList();
+	}
+
+	/**
+	 * Strong entity tag for the category list, derived from the write counter instead of the body.
+	 */
+	public String etag() {
+		return "\"c" + repository.getVersion() + "\"";
+	}
+}
@@ -0,0 +1,131 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.DatasetDTO;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.StockRepository;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+
+/**
+ * Copy-on-write forks of the product, stock, order and user stores.
+ * <p>
+ * A fork starts as an empty overlay on each store, so creating one costs the same whatever the
+ * size of the data. Requests that carry its id in the {@code X-Dataset} header read the stores
+ * as they were when the fork was taken, plus their own writes, which nobody else sees.
+ * Dropping the fork discards those writes. Categories are shared by every fork.
+ * <p>
+ * Requests hold a {@link Lease} on the fork they use, taken once when the request starts. A
+ * fork dropped while requests still use it stops accepting new ones at once, but its overlays
+ * are only discarded when the last of those requests ends.
+ */
+@Service
+public class DatasetService {
+
+	public static final String HEADER = "X-Dataset";
+
+	private final ProductRepository productRepository;
+	private final StockRepository stockRepository;
+	private final OrderRepository orderRepository;
+	private final UserRepository userRepository;
+	private final int maxLive;
+	private final ConcurrentMap<String, Lease> live = new ConcurrentHashMap<>();
+	// Forks whose overlays exist, including dropped ones still in use; reserved before creating one
+	private final AtomicInteger forks = new AtomicInteger();
+
+	public DatasetService(ProductRepository productRepository, StockRepository stockRepository,
+			OrderRepository orderRepository, UserRepository userRepository,
+			@Value("${datasets.max-live}") int maxLive) {
+		this.productRepository = productRepository;
+		this.stockRepository = stockRepository;
+		this.orderRepository = orderRepository;
+		this.userRepository = userRepository;
+		this.maxLive = maxLive;
+	}
+
+	public DatasetDTO fork() {
+		if (forks.incrementAndGet() > maxLive) {
+			forks.decrementAndGet();
+			throw new BadRequestException("Limite de " + maxLive + " datasets ativos atingido");
+		}
+		String id = UUID.randomUUID().toString();
+		try {
+			productRepository.fork(id);
+			stockRepository.fork(id);
+			orderRepository.fork(id);
+			userRepository.fork(id);
+		}
+		catch (RuntimeException e) {
+			discard(id);
+			throw e;
+		}
+		live.put(id, new Lease(id));
+		return new DatasetDTO(id);
+	}
+
+	public void drop(String id) {
+		Lease lease = live.remove(id);
+		if (lease == null) {
+			throw new ResourceNotFoundException("Dataset não encontrado");
+		}
+		lease.close();
+	}
+
+	/**
+	 * Keeps the fork {@code id} from being discarded until the lease is closed.
+	 *
+	 * @throws ResourceNotFoundException when there is no such fork, or it was dropped
+	 */
+	public Lease acquire(String id) {
+		// Runs under the map's lock for the key, so it cannot interleave with the removal in drop()
+		Lease lease = live.computeIfPresent(id, (key, current) -> {
+			current.users.incrementAndGet();
+			return current;
+		});
+		if (lease == null) {
+			throw new ResourceNotFoundException("Dataset não encontrado");
+		}
+		return lease;
+	}
+
+	/** Drops whatever overlays exist for {@code id} and frees its slot. */
+	private void discard(String id) {
+		try {
+			productRepository.drop(id);
+			stockRepository.drop(id);
+			orderRepository.drop(id);
+			userRepository.drop(id);
+		}
+		finally {
+			forks.decrementAndGet();
+		}
+	}
+
+	/** One use of a fork: a request working on it, or the fork being live. */
+	public class Lease implements AutoCloseable {
+
+		private final String id;
+		// The fork itself counts as one user until it is dropped
+		private final AtomicInteger users = new AtomicInteger(1);
+
+		private Lease(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public void close() {
+			if (users.decrementAndGet() == 0) {
+				discard(id);
+			}
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.devsuperior.dscommerce.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.CustomError;
+import com.devsuperior.dscommerce.dto.OrderBatchResultDTO;
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.dto.PageDTO;
+import com.devsuperior.dscommerce.dto.ValidationError;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.DatasetScope;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.StockRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
+import com.devsuperior.dscommerce.services.exceptions.InsufficientStockException;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+@Service
+public class OrderService {
+
+	private final OrderRepository repository;
+	private final ProductRepository productRepository;
+	private final StockRepository stockRepository;
+	private final AuthService authService;
+	private final Validator validator;
+	private final ApiMetrics metrics;
+	private final int maxBatchSize;
+
+	public OrderService(OrderRepository repository, ProductRepository productRepository,
+			StockRepository stockRepository, AuthService authService, Validator validator, ApiMetrics metrics,
+			@Value("${orders.batch.max-size}") int maxBatchSize) {
+		this.repository = repository;
+		this.productRepository = productRepository;
+		this.stockRepository = stockRepository;
+		this.authService = authService;
+		this.validator = validator;
+		this.metrics = metrics;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	public OrderDTO findById(Long id) {
+		User me = authService.authenticated();
+		if (!me.hasRole("ROLE_ADMIN") && !repository.isOwnedBy(id, me.getId())) {
+			if (repository.existsById(id)) {
+				throw new ForbiddenException("Access denied");
+			}
+			throw new ResourceNotFoundException("Recurso não encontrado");
+		}
+		return repository.findViewById(id).orElseThrow(
+				() -> new ResourceNotFoundException("Recurso não encontrado"));
+	}
+
+	public PageDTO<OrderDTO> findMine(int page, int size) {
+		User me = authService.authenticated();
+		long offset = (long) page * size;
+		List<OrderDTO> content = repository.findViewsByClientId(me.getId(), offset, size);
+		return new PageDTO<>(content, page, size, repository.countByClientId(me.getId()));
+	}
+
+	public OrderDTO insert(OrderDTO dto) {
+		Order order = new Order();
+		order.setMoment(Instant.now());
+		order.setStatus(OrderStatus.WAITING_PAYMENT);
+		order.setClient(authService.authenticated());
+
+		Map<Long, Integer> quantities = new TreeMap<>();
+		for (OrderItemDTO itemDto : dto.getItems()) {
+			Product product = productRepository.findById(itemDto.getProductId()).orElseThrow(
+					() -> new ResourceNotFoundException("Recurso não encontrado"));
+			order.getItems().add(new OrderItem(product, itemDto.getQuantity(), product.getPrice()));
+			quantities.merge(product.getId(), Math.max(itemDto.getQuantity(), 0), Integer::sum);
+		}
+
+		OptionalLong shortProduct = stockRepository.reserve(quantities);
+		if (shortProduct.isPresent()) {
+			throw new InsufficientStockException("Estoque insuficiente para o produto " + shortProduct.getAsLong());
+		}
+		try {
+			repository.save(order);
+		}
+		catch (RuntimeException e) {
+			stockRepository.release(quantities);
+			throw e;
+		}
+		return repository.findViewById(order.getId()).orElseThrow();
+	}
+
+	/**
+	 * Places many orders for the authenticated client in one call.
+	 * <p>
+	 * Each order is validated and resolved against the catalog in parallel. Stock is then
+	 * reserved order by order, with the same all-or-nothing rule as {@link #insert(OrderDTO)}, and
+	 * the accepted orders are saved as one group. Results come back in request order, each with
+	 * the status and body a single {@code POST /orders} would have answered.
+	 */
+	public List<OrderBatchResultDTO> insertBatch(List<OrderDTO> dtos, String path) {
+		if (dtos.size() > maxBatchSize) {
+			throw new BadRequestException("O lote pode ter no máximo " + maxBatchSize + " pedidos");
+		}
+		User client = authService.authenticated();
+		Instant moment = Instant.now();
+
+		String dataset = DatasetScope.current();
+		List<PreparedOrder> prepared = IntStream.range(0, dtos.size()).parallel()
+				.mapToObj(i -> DatasetScope.call(dataset, () -> prepare(i, dtos.get(i), client, moment, path)))
+				.toList();
+
+		List<Order> accepted = new ArrayList<>();
+		CustomError[] stockErrors = new CustomError[prepared.size()];
+		for (PreparedOrder p : prepared) {
+			if (p.error() != null) {
+				continue;
+			}
+			OptionalLong shortProduct = stockRepository.reserve(p.quantities());
+			if (shortProduct.isPresent()) {
+				stockErrors[p.index()] = new CustomError(moment, 409,
+						"Estoque insuficiente para o produto " + shortProduct.getAsLong(), path);
+				continue;
+			}
+			accepted.add(p.order());
+		}
+		try {
+			repository.saveAll(client.getId(), accepted);
+		}
+		catch (RuntimeException e) {
+			for (PreparedOrder p : prepared) {
+				if (p.error() == null && stockErrors[p.index()] == null) {
+					stockRepository.release(p.quantities());
+				}
+			}
+			throw e;
+		}
+
+		List<OrderBatchResultDTO> results = new ArrayList<>(prepared.size());
+		for (PreparedOrder p : prepared) {
+			CustomError error = p.error() != null ? p.error() : stockErrors[p.index()];
+			if (error != null) {
+				results.add(OrderBatchResultDTO.failed(p.index(), error));
+			}
+			else {
+				results.add(OrderBatchResultDTO.created(p.index(),
+						repository.findViewById(p.order().getId()).orElseThrow()));
+			}
+		}
+		return results;
+	}
+
+	private PreparedOrder prepare(int index, OrderDTO dto, User client, Instant moment, String path) {
+		if (dto == null) {
+			// A null entry has no items, and the validator rejects null outright
+			ValidationError err = new ValidationError(moment, 422, "Dados inválidos", path);
+			err.addError("items", "Deve ter pelo menos um item");
+			metrics.validationFailed("items", "Deve ter pelo menos um item");
+			return new PreparedOrder(index, null, null, err);
+		}
+		Set<ConstraintViolation<OrderDTO>> violations = validator.validate(dto);
+		if (!violations.isEmpty()) {
+			ValidationError err = new ValidationError(moment, 422, "Dados inválidos", path);
+			for (ConstraintViolation<OrderDTO> v : violations) {
+				err.addError(v.getPropertyPath().toString(), v.getMessage());
+				metrics.validationFailed(v.getPropertyPath().toString(), v.getMessage());
+			}
+			return new PreparedOrder(index, null, null, err);
+		}
+
+		Order order = new Order();
+		order.setMoment(moment);
+		order.setStatus(OrderStatus.WAITING_PAYMENT);
+		order.setClient(client);
+		Map<Long, Integer> quantities = new TreeMap<>();
+		for (OrderItemDTO itemDto : dto.getItems()) {
+			Product product = itemDto.getProductId() == null ? null
+					: productRepository.findById(itemDto.getProductId()).orElse(null);
+			if (product == null) {
+				return new PreparedOrder(index, null, null, new CustomError(moment, 404, "Recurso não encontrado", path));
+			}
+			order.getItems().add(new OrderItem(product, itemDto.getQuantity(), product.getPrice()));
+			quantities.merge(product.getId(), Math.max(itemDto.getQuantity(), 0), Integer::sum);
+		}
+		return new PreparedOrder(index, order, quantities, null);
+	}
+
+	private record PreparedOrder(int index, Order order, Map<Long, Integer> quantities, CustomError error) {
+	}
+}
@@ -0,0 +1,118 @@
+package com.devsuperior.dscommerce.services;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.repositories.DatasetScope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Size-bounded cache of serialized product representations, keyed by product id.
+ * <p>
+ * Each entry carries the entity tag of its own bytes, built from the product version and the
+ * category version it was serialized with, so a response never pairs one version's body with
+ * another version's tag. An entry serialized before the latest category write is reloaded.
+ * <p>
+ * Caffeine evicts with W-TinyLFU, so a burst of one-off reads does not push out the hot
+ * products. Entries are dropped by {@link #invalidate(Long)} after every write; a load racing
+ * with a write is covered because invalidation waits for an in-flight load of the same key.
+ * With {@code cache.products.verify} every hit is compared against a fresh serialization,
+ * mismatches are counted as stale reads and the fresh entry is served instead.
+ * <p>
+ * A forked dataset may hold a different product under the same id, so entries loaded in a fork
+ * are keyed by dataset and id. They become unreachable once the fork is dropped and are left to
+ * eviction.
+ */
+@Component
+public class ProductJsonCache {
+
+	private final Cache<Object, Entry> cache;
+	private final ObjectMapper objectMapper;
+	private final CategoryRepository categoryRepository;
+	private final boolean verify;
+	private final LongAdder staleReads = new LongAdder();
+
+	public ProductJsonCache(ObjectMapper objectMapper, CategoryRepository categoryRepository,
+			@Value("${cache.products.maximum-size}") long maximumSize,
+			@Value("${cache.products.verify}") boolean verify) {
+		this.objectMapper = objectMapper;
+		this.categoryRepository = categoryRepository;
+		this.verify = verify;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * The serialized product and its entity tag, both taken from the same read of the product.
+	 */
+	public record Entry(byte[] json, String etag, long categoryVersion) {
+	}
+
+	public Entry get(Long id, Supplier<Product> loader) {
+		Object key = key(id);
+		long categories = categoryRepository.getVersion();
+		Entry entry = cache.get(key, k -> load(loader, categories));
+		if (entry.categoryVersion() != categories) {
+			// Conditional, so an entry a product write already replaced is kept
+			cache.asMap().remove(key, entry);
+			entry = cache.get(key, k -> load(loader, categories));
+		}
+		if (verify) {
+			Entry fresh = load(loader, categories);
+			if (!Arrays.equals(entry.json(), fresh.json()) || !entry.etag().equals(fresh.etag())) {
+				staleReads.increment();
+				cache.asMap().replace(key, entry, fresh);
+				return fresh;
+			}
+		}
+		return entry;
+	}
+
+	public void invalidate(Long id) {
+		cache.invalidate(key(id));
+	}
+
+	public CacheStatsDTO stats() {
+		CacheStats stats = cache.stats();
+		return new CacheStatsDTO(stats.hitCount(), stats.missCount(), stats.evictionCount(), staleReads.sum(),
+				cache.estimatedSize(), verify);
+	}
+
+	// Shared products stay keyed by the bare id, so the common path allocates no key.
+	private static Object key(Long id) {
+		String dataset = DatasetScope.current();
+		return dataset == null ? id : new DatasetKey(dataset, id);
+	}
+
+	private record DatasetKey(String dataset, Long id) {
+	}
+
+	private Entry load(Supplier<Product> loader, long categoryVersion) {
+		Product product = loader.get();
+		String etag = "\"p" + product.getId() + "-" + product.getVersion() + "-" + categoryVersion + "\"";
+		return new Entry(serialize(new ProductDTO(product)), etag, categoryVersion);
+	}
+
+	private byte[] serialize(ProductDTO dto) {
+		try {
+			return objectMapper.writeValueAsBytes(dto);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize product " + dto.getId(), e);
+		}
+	}
+}
@@ -0,0 +1,356 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.CustomError;
+import com.devsuperior.dscommerce.dto.FieldMessage;
+import com.devsuperior.dscommerce.dto.PageDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductImportReportDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.StockDTO;
+import com.devsuperior.dscommerce.dto.ValidationError;
+import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.StockRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
+import com.devsuperior.dscommerce.services.exceptions.InvalidDataException;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+@Service
+public class ProductService {
+
+	private static final String CURSOR_PREFIX = "p1:";
+
+	private final ProductRepository repository;
+	private final CategoryRepository categoryRepository;
+	private final OrderRepository orderRepository;
+	private final StockRepository stockRepository;
+	private final ProductJsonCache cache;
+	private final ObjectWriter exportWriter;
+	private final ObjectReader importReader;
+	private final ProductValidator validator;
+	private final ApiMetrics metrics;
+	private final int initialStock;
+	private final int importBatchSize;
+
+	public ProductService(ProductRepository repository, CategoryRepository categoryRepository,
+			OrderRepository orderRepository, StockRepository stockRepository, ProductJsonCache cache,
+			ObjectMapper objectMapper, ProductValidator validator, ApiMetrics metrics,
+			@Value("${stock.initial-quantity}") int initialStock,
+			@Value("${products.import.batch-size}") int importBatchSize) {
+		this.repository = repository;
+		this.categoryRepository = categoryRepository;
+		this.orderRepository = orderRepository;
+		this.stockRepository = stockRepository;
+		this.cache = cache;
+		this.exportWriter = objectMapper.writerFor(ProductDTO.class)
+				.withRootValueSeparator("\n")
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.importReader = objectMapper.readerFor(ProductDTO.class);
+		this.validator = validator;
+		this.metrics = metrics;
+		this.initialStock = initialStock;
+		this.importBatchSize = importBatchSize;
+	}
+
+	public ProductDTO findById(Long id) {
+		return new ProductDTO(find(id));
+	}
+
+	/**
+	 * The product as serialized JSON with its strong entity tag, served from
+	 * {@link ProductJsonCache}. The tag changes whenever the product or any category is written.
+	 */
+	public ProductJsonCache.Entry findByIdAsJson(Long id) {
+		return cache.get(id, () -> find(id));
+	}
+
+	private Product find(Long id) {
+		return repository.findById(id).orElseThrow(
+				() -> new ResourceNotFoundException("Recurso não encontrado"));
+	}
+
+	public CacheStatsDTO cacheStats() {
+		return cache.stats();
+	}
+
+	public PageDTO<ProductMinDTO> findAll(String name, Double minPrice, Double maxPrice, int page, int size) {
+		List<Product> result = repository.search(name, minPrice, maxPrice);
+		int from = (int) Math.min((long) page * size, result.size());
+		int to = Math.min(from + size, result.size());
+		List<ProductMinDTO> content = result.subList(from, to).stream().map(ProductMinDTO::new).toList();
+		return new PageDTO<>(content, page, size, result.size());
+	}
+
+	/**
+	 * Keyset page after the position encoded in {@code cursor}; an empty cursor starts from the
+	 * beginning. Products are ordered by id, so rows inserted or deleted elsewhere in the catalog
+	 * never shift the rows of a walk in progress.
+	 */
+	public CursorPageDTO<ProductMinDTO> findAllByCursor(String name, Double minPrice, Double maxPrice,
+			String cursor, int size) {
+		long afterId = decodeCursor(cursor);
+		List<Product> result = repository.searchAfter(name, minPrice, maxPrice, afterId, size + 1);
+		String nextCursor = null;
+		if (result.size() > size) {
+			result = result.subList(0, size);
+			nextCursor = encodeCursor(result.get(size - 1).getId());
+		}
+		List<ProductMinDTO> content = result.stream().map(ProductMinDTO::new).toList();
+		return new CursorPageDTO<>(content, size, nextCursor);
+	}
+
+	/**
+	 * Writes every product, with its categories, to {@code out} as newline-delimited JSON in id
+	 * order. Products are serialized one at a time straight into the stream, so memory use does
+	 * not grow with the size of the catalog.
+	 */
+	public void export(OutputStream out) throws IOException {
+		try (JsonGenerator generator = exportWriter.createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			boolean any = false;
+			for (Product product : repository.findAllInIdOrder()) {
+				exportWriter.writeValue(generator, new ProductDTO(product));
+				any = true;
+			}
+			if (any) {
+				generator.writeRaw('\n');
+			}
+		}
+	}
+
+	/**
+	 * Inserts the products of an NDJSON stream or JSON array. Rows are read and processed
+	 * {@code products.import.batch-size} at a time: each batch is validated in parallel against
+	 * the same constraints as {@code POST /products} and its valid rows are inserted together.
+	 * Rejected rows are reported with the error body a single insert would have answered. A row
+	 * whose values do not fit their fields, such as a text price, is rejected on its own with the
+	 * line it is on. A row that is not well-formed JSON ends the import; the rows before it stay
+	 * imported.
+	 */
+	public ProductImportReportDTO importProducts(InputStream body, String path) throws IOException {
+		Instant moment = Instant.now();
+		ProductImportReportDTO report = new ProductImportReportDTO();
+		List<ProductDTO> batch = new ArrayList<>(importBatchSize);
+		Map<Integer, CustomError> unreadable = new HashMap<>();
+		int first = 0;
+		try (MappingIterator<ProductDTO> rows = importReader.readValues(body)) {
+			while (rows.hasNextValue()) {
+				try {
+					batch.add(rows.nextValue());
+				}
+				catch (MismatchedInputException e) {
+					// The iterator skips the rest of the row on the next hasNextValue()
+					unreadable.put(batch.size(), mismatch(e, moment, path));
+					batch.add(null);
+				}
+				if (batch.size() == importBatchSize) {
+					importBatch(batch, unreadable, first, moment, path, report);
+					first += batch.size();
+					batch.clear();
+					unreadable.clear();
+				}
+			}
+		}
+		catch (JsonProcessingException e) {
+			importBatch(batch, unreadable, first, moment, path, report);
+			report.addFailure(first + batch.size(), new CustomError(moment, 400, "JSON inválido", path));
+			return report;
+		}
+		importBatch(batch, unreadable, first, moment, path, report);
+		return report;
+	}
+
+	private static CustomError mismatch(MismatchedInputException e, Instant moment, String path) {
+		StringBuilder field = new StringBuilder();
+		for (JsonMappingException.Reference reference : e.getPath()) {
+			if (reference.getFieldName() != null) {
+				field.append(field.length() == 0 ? "" : ".").append(reference.getFieldName());
+			}
+			else if (reference.getIndex() >= 0) {
+				field.append('[').append(reference.getIndex()).append(']');
+			}
+		}
+		StringBuilder message = new StringBuilder("Valor inválido");
+		if (field.length() > 0) {
+			message.append(" para o campo ").append(field);
+		}
+		if (e.getLocation() != null) {
+			message.append(" na linha ").append(e.getLocation().getLineNr());
+		}
+		return new CustomError(moment, 400, message.toString(), path);
+	}
+
+	private void importBatch(List<ProductDTO> batch, Map<Integer, CustomError> unreadable, int first, Instant moment,
+			String path, ProductImportReportDTO report) {
+		List<PreparedProduct> prepared = IntStream.range(0, batch.size()).parallel()
+				.mapToObj(i -> unreadable.containsKey(i) ? new PreparedProduct(first + i, null, unreadable.get(i))
+						: prepare(first + i, batch.get(i), moment, path))
+				.toList();
+
+		List<Product> accepted = new ArrayList<>(prepared.size());
+		for (PreparedProduct p : prepared) {
+			if (p.error() != null) {
+				report.addFailure(p.index(), p.error());
+			}
+			else {
+				accepted.add(p.product());
+			}
+		}
+		repository.saveAll(accepted);
+		for (Product product : accepted) {
+			stockRepository.setQuantity(product.getId(), initialStock);
+		}
+		report.addImported(accepted.size());
+	}
+
+	private PreparedProduct prepare(int index, ProductDTO dto, Instant moment, String path) {
+		if (dto == null) {
+			return new PreparedProduct(index, null, new CustomError(moment, 400, "JSON inválido", path));
+		}
+		List<FieldMessage> errors = validator.validate(dto);
+		if (!errors.isEmpty()) {
+			ValidationError err = new ValidationError(moment, 422, "Dados inválidos", path);
+			for (FieldMessage f : errors) {
+				err.addError(f.getFieldName(), f.getMessage());
+				metrics.validationFailed(f.getFieldName(), f.getMessage());
+			}
+			return new PreparedProduct(index, null, err);
+		}
+
+		Product product = new Product(null, dto.getName(), dto.getDescription(), dto.getPrice(), dto.getImgUrl());
+		for (CategoryDTO catDto : dto.getCategories()) {
+			Category cat = catDto == null || catDto.getId() == null ? null
+					: categoryRepository.findById(catDto.getId()).orElse(null);
+			if (cat == null) {
+				return new PreparedProduct(index, null, new CustomError(moment, 404, "Categoria não encontrada", path));
+			}
+			product.getCategories().add(cat);
+		}
+		return new PreparedProduct(index, product, null);
+	}
+
+	public ProductDTO insert(ProductDTO dto) {
+		validate(dto);
+		Product entity = new Product();
+		copyDtoToEntity(dto, entity);
+		entity = repository.save(entity);
+		stockRepository.setQuantity(entity.getId(), initialStock);
+		return new ProductDTO(entity);
+	}
+
+	public ProductDTO update(Long id, ProductDTO dto) {
+		validate(dto);
+		if (!repository.existsById(id)) {
+			throw new ResourceNotFoundException("Recurso não encontrado");
+		}
+		// Written as a new instance: the stored one may still be seen by forked datasets.
+		Product entity = new Product(id, null, null, null, null);
+		copyDtoToEntity(dto, entity);
+		entity = repository.save(entity);
+		cache.invalidate(id);
+		return new ProductDTO(entity);
+	}
+
+	public void delete(Long id) {
+		if (!repository.existsById(id)) {
+			throw new ResourceNotFoundException("Recurso não encontrado");
+		}
+		if (orderRepository.existsByProductId(id)) {
+			throw new DatabaseException("Falha de integridade referencial");
+		}
+		repository.deleteById(id);
+		stockRepository.deleteByProductId(id);
+		cache.invalidate(id);
+	}
+
+	public StockDTO findStock(Long id) {
+		if (!repository.existsById(id)) {
+			throw new ResourceNotFoundException("Recurso não encontrado");
+		}
+		return new StockDTO(id, stockRepository.findQuantity(id).orElse(0));
+	}
+
+	public StockDTO updateStock(Long id, StockDTO dto) {
+		if (!repository.existsById(id)) {
+			throw new ResourceNotFoundException("Recurso não encontrado");
+		}
+		stockRepository.setQuantity(id, dto.getQuantity());
+		return new StockDTO(id, dto.getQuantity());
+	}
+
+	private static String encodeCursor(long lastId) {
+		byte[] raw = (CURSOR_PREFIX + lastId).getBytes(StandardCharsets.US_ASCII);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+	}
+
+	private static long decodeCursor(String cursor) {
+		if (cursor.isEmpty()) {
+			return 0L;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+			if (raw.startsWith(CURSOR_PREFIX)) {
+				return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+			}
+		}
+		catch (IllegalArgumentException e) {
+			// falls through to the error below
+		}
+		throw new BadRequestException("Cursor inválido");
+	}
+
+	private void validate(ProductDTO dto) {
+		List<FieldMessage> errors = validator.validate(dto);
+		if (!errors.isEmpty()) {
+			throw new InvalidDataException(errors);
+		}
+	}
+
+	private record PreparedProduct(int index, Product product, CustomError error) {
+	}
+
+	private void copyDtoToEntity(ProductDTO dto, Product entity) {
+		entity.setName(dto.getName());
+		entity.setDescription(dto.getDescription());
+		entity.setPrice(dto.getPrice());
+		entity.setImgUrl(dto.getImgUrl());
+
+		entity.getCategories().clear();
+		for (CategoryDTO catDto : dto.getCategories()) {
+			Category cat = categoryRepository.findById(catDto.getId()).orElseThrow(
+					() -> new ResourceNotFoundException("Categoria não encontrada"));
+			entity.getCategories().add(cat);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.devsuperior.dscommerce.services;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.dto.FieldMessage;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Validates product payloads against the constraints declared on {@link ProductDTO} without
+ * going through bean validation on every request.
+ * <p>
+ * The annotations are read once, when the validator is built, into one plain rule per field;
+ * validating a payload then only calls getters and compares values. A valid payload allocates
+ * nothing. Messages come from the annotations themselves, and a constraint this class does not
+ * know fails at start-up instead of being silently skipped.
+ * <p>
+ * Each invalid field yields a single message. When a field is missing or blank and also too
+ * short, bean validation reports both and the error body keeps whichever it happened to list
+ * last; here the "required" message always wins.
+ */
+@Component
+public class ProductValidator {
+
+	private final FieldRule[] rules;
+
+	public ProductValidator() {
+		Map<String, Function<ProductDTO, Object>> getters = new LinkedHashMap<>();
+		getters.put("name", ProductDTO::getName);
+		getters.put("description", ProductDTO::getDescription);
+		getters.put("price", ProductDTO::getPrice);
+		getters.put("imgUrl", ProductDTO::getImgUrl);
+		getters.put("categories", ProductDTO::getCategories);
+
+		for (Field field : ProductDTO.class.getDeclaredFields()) {
+			for (Annotation annotation : field.getAnnotations()) {
+				if (isConstraint(annotation) && !getters.containsKey(field.getName())) {
+					throw new IllegalStateException("No getter registered for constrained field " + field.getName());
+				}
+			}
+		}
+		List<FieldRule> compiled = new ArrayList<>();
+		for (Map.Entry<String, Function<ProductDTO, Object>> entry : getters.entrySet()) {
+			FieldRule rule = compile(entry.getKey(), entry.getValue());
+			if (rule != null) {
+				compiled.add(rule);
+			}
+		}
+		rules = compiled.toArray(new FieldRule[0]);
+	}
+
+	/**
+	 * Field errors of {@code dto} in declaration order, or an empty list when it is valid.
+	 */
+	public List<FieldMessage> validate(ProductDTO dto) {
+		List<FieldMessage> errors = null;
+		for (FieldRule rule : rules) {
+			String message = rule.check(rule.getter.apply(dto));
+			if (message != null) {
+				if (errors == null) {
+					errors = new ArrayList<>(rules.length);
+				}
+				errors.add(new FieldMessage(rule.field, message));
+			}
+		}
+		return errors == null ? List.of() : errors;
+	}
+
+	private static FieldRule compile(String name, Function<ProductDTO, Object> getter) {
+		Field field;
+		try {
+			field = ProductDTO.class.getDeclaredField(name);
+		}
+		catch (NoSuchFieldException e) {
+			throw new IllegalStateException("ProductDTO has no field " + name, e);
+		}
+		FieldRule rule = new FieldRule(name, getter);
+		boolean constrained = false;
+		for (Annotation annotation : field.getAnnotations()) {
+			if (annotation instanceof NotBlank a) {
+				rule.requiredMessage = a.message();
+				rule.notBlank = true;
+			}
+			else if (annotation instanceof NotNull a) {
+				rule.requiredMessage = a.message();
+			}
+			else if (annotation instanceof NotEmpty a) {
+				rule.requiredMessage = a.message();
+				rule.notEmpty = true;
+			}
+			else if (annotation instanceof Size a) {
+				rule.sizeMessage = a.message();
+				rule.min = a.min();
+				rule.max = a.max();
+			}
+			else if (annotation instanceof Positive a) {
+				rule.positiveMessage = a.message();
+			}
+			else if (isConstraint(annotation)) {
+				throw new IllegalStateException("Unsupported constraint " + annotation + " on " + name);
+			}
+			else {
+				continue;
+			}
+			constrained = true;
+		}
+		return constrained ? rule : null;
+	}
+
+	private static boolean isConstraint(Annotation annotation) {
+		return annotation.annotationType().getPackageName().equals(NotNull.class.getPackageName());
+	}
+
+	/** Every constraint declared on one field, checked with plain comparisons. */
+	private static class FieldRule {
+
+		private final String field;
+		private final Function<ProductDTO, Object> getter;
+		private String requiredMessage;
+		private boolean notBlank;
+		private boolean notEmpty;
+		private String sizeMessage;
+		private int min;
+		private int max;
+		private String positiveMessage;
+
+		FieldRule(String field, Function<ProductDTO, Object> getter) {
+			this.field = field;
+			this.getter = getter;
+		}
+
+		String check(Object value) {
+			if (value == null) {
+				return requiredMessage;
+			}
+			if (notBlank && isBlank((CharSequence) value)) {
+				return requiredMessage;
+			}
+			if (notEmpty && size(value) == 0) {
+				return requiredMessage;
+			}
+			if (sizeMessage != null) {
+				int size = size(value);
+				if (size < min || size > max) {
+					return sizeMessage;
+				}
+			}
+			// written so that NaN, like zero, is not positive
+			if (positiveMessage != null && !(((Number) value).doubleValue() > 0.0)) {
+				return positiveMessage;
+			}
+			return null;
+		}
+
+		// Same notion of blank as bean validation: nothing left after String.trim().
+		private static boolean isBlank(CharSequence value) {
+			for (int i = 0; i < value.length(); i++) {
+				if (value.charAt(i) > ' ') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int size(Object value) {
+			return value instanceof CharSequence s ? s.length() : ((Collection<?>) value).size();
+		}
+	}
+}
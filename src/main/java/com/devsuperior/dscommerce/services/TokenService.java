@@ -0,0 +1,98 @@
+package com.devsuperior.dscommerce.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.AccessTokenDTO;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.security.JwtClaims;
+import com.devsuperior.dscommerce.security.JwtCodec;
+import com.devsuperior.dscommerce.services.exceptions.OAuth2Exception;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Issues signed JWT bearer tokens through the OAuth2 password grant and resolves them back to
+ * users.
+ * <p>
+ * Tokens are verified locally by {@link JwtCodec}. Claims of tokens that verified are kept in a
+ * cache of {@code security.jwt.claims-cache-size} entries (0 disables it) keyed by the whole
+ * token, signature included, so an altered token is always a miss and is verified in full.
+ * Expiry is checked on every call, cached or not.
+ */
+@Service
+public class TokenService {
+
+	private final UserRepository userRepository;
+	private final JwtCodec codec;
+	private final String clientId;
+	private final String clientSecret;
+	private final Duration duration;
+	private final Cache<String, JwtClaims> claimsCache;
+
+	public TokenService(UserRepository userRepository, JwtCodec codec,
+			@Value("${security.client-id}") String clientId,
+			@Value("${security.client-secret}") String clientSecret,
+			@Value("${security.token.duration}") long durationSeconds,
+			@Value("${security.jwt.claims-cache-size}") long claimsCacheSize) {
+		this.userRepository = userRepository;
+		this.codec = codec;
+		this.clientId = clientId;
+		this.clientSecret = clientSecret;
+		this.duration = Duration.ofSeconds(durationSeconds);
+		this.claimsCache = claimsCacheSize > 0 ? Caffeine.newBuilder().maximumSize(claimsCacheSize).build() : null;
+	}
+
+	public AccessTokenDTO issue(String authorization, String grantType, String username, String password) {
+		authenticateClient(authorization);
+		if (!"password".equals(grantType)) {
+			throw new OAuth2Exception("unsupported_grant_type", 400, "Only the password grant is supported");
+		}
+		User user = userRepository.findByEmail(username == null ? "" : username)
+				.filter(u -> matches(u.getPassword(), password))
+				.orElseThrow(() -> new OAuth2Exception("invalid_grant", 400, "Bad credentials"));
+
+		long now = Instant.now().getEpochSecond();
+		String token = codec.encode(new JwtClaims(user.getId(), now, now + duration.toSeconds()));
+		return new AccessTokenDTO(token, "Bearer", duration.toSeconds());
+	}
+
+	public Optional<User> introspect(String token) {
+		JwtClaims claims = claimsCache != null ? claimsCache.get(token, codec::decode) : codec.decode(token);
+		if (claims == null || Instant.now().getEpochSecond() >= claims.expiresAt()) {
+			return Optional.empty();
+		}
+		return userRepository.findById(claims.userId());
+	}
+
+	private void authenticateClient(String authorization) {
+		if (authorization == null || !authorization.startsWith("Basic ")) {
+			throw new OAuth2Exception("invalid_client", 401, "Client authentication required");
+		}
+		String credentials;
+		try {
+			credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+		}
+		catch (IllegalArgumentException e) {
+			throw new OAuth2Exception("invalid_client", 401, "Malformed client credentials");
+		}
+		int colon = credentials.indexOf(':');
+		if (colon < 0 || !matches(clientId, credentials.substring(0, colon))
+				|| !matches(clientSecret, credentials.substring(colon + 1))) {
+			throw new OAuth2Exception("invalid_client", 401, "Bad client credentials");
+		}
+	}
+
+	private static boolean matches(String expected, String actual) {
+		return actual != null && MessageDigest.isEqual(
+				expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+	}
+}
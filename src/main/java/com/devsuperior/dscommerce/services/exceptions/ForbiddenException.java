@@ -0,0 +1,8 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+public class ForbiddenException extends RuntimeException {
+
+	public ForbiddenException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,8 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+public class InsufficientStockException extends RuntimeException {
+
+	public InsufficientStockException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,23 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+import java.util.List;
+
+import com.devsuperior.dscommerce.dto.FieldMessage;
+
+/**
+ * Payload rejected by a service-side validator, carrying one message per invalid field. It is
+ * thrown on every bad request, so it skips the stack trace, which nobody reads.
+ */
+public class InvalidDataException extends RuntimeException {
+
+	private final List<FieldMessage> errors;
+
+	public InvalidDataException(List<FieldMessage> errors) {
+		super("Dados inválidos", null, false, false);
+		this.errors = errors;
+	}
+
+	public List<FieldMessage> getErrors() {
+		return errors;
+	}
+}
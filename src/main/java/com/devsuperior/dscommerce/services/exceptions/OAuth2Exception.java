@@ -0,0 +1,24 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+/**
+ * Token endpoint failure, reported with an RFC 6749 error code such as {@code invalid_grant}.
+ */
+public class OAuth2Exception extends RuntimeException {
+
+	private final String error;
+	private final int status;
+
+	public OAuth2Exception(String error, int status, String description) {
+		super(description);
+		this.error = error;
+		this.status = status;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+}
@@ -0,0 +1,8 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+public class UnauthorizedException extends RuntimeException {
+
+	public UnauthorizedException(String msg) {
+		super(msg);
+	}
+}
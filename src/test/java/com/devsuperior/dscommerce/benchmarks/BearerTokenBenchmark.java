@@ -0,0 +1,91 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import com.devsuperior.dscommerce.controllers.ProductController;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.Role;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.security.BearerTokenInterceptor;
+import com.devsuperior.dscommerce.security.JwtClaims;
+import com.devsuperior.dscommerce.security.JwtCodec;
+import com.devsuperior.dscommerce.security.JwtKeySet;
+import com.devsuperior.dscommerce.services.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Throughput of authenticating a request to an admin-only route: {@link BearerTokenInterceptor}
+ * resolving a bearer JWT and checking the role, with the verified-claims cache disabled (every
+ * request checks the HS256 signature and parses the claims) and enabled. Requests rotate over
+ * {@code tokens} distinct tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BearerTokenBenchmark {
+
+	@Param({ "0", "10000" })
+	public long claimsCacheSize;
+
+	@Param({ "1024" })
+	public int tokens;
+
+	private BearerTokenInterceptor interceptor;
+	private HandlerMethod handler;
+	private MockHttpServletRequest[] requests;
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+	private int next;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		UserRepository users = new UserRepository();
+		User admin = new User(null, "Alex Green", "alex@gmail.com", "977777777", null, "123456");
+		admin.addRole(new Role(2L, "ROLE_ADMIN"));
+		users.save(admin);
+
+		byte[] secret = new byte[32];
+		JwtKeySet keys = new JwtKeySet("k1:" + Base64.getEncoder().encodeToString(secret));
+		JwtCodec codec = new JwtCodec(keys, new ObjectMapper());
+		TokenService tokenService = new TokenService(users, codec, "myclientid", "myclientsecret", 86400,
+				claimsCacheSize);
+		interceptor = new BearerTokenInterceptor(tokenService);
+		handler = new HandlerMethod(new ProductController(null),
+				ProductController.class.getMethod("insert", ProductDTO.class));
+
+		long now = Instant.now().getEpochSecond();
+		requests = new MockHttpServletRequest[tokens];
+		for (int i = 0; i < tokens; i++) {
+			requests[i] = new MockHttpServletRequest("POST", "/products");
+			requests[i].addHeader("Authorization",
+					"Bearer " + codec.encode(new JwtClaims(admin.getId(), now - i, now + 86400)));
+		}
+	}
+
+	@Benchmark
+	public boolean authenticate() {
+		MockHttpServletRequest request = requests[next];
+		next = next + 1 == tokens ? 0 : next + 1;
+		return interceptor.preHandle(request, response, handler);
+	}
+}
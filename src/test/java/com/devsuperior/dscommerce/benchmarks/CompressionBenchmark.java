@@ -0,0 +1,100 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscommerce.config.CompressorPool;
+import com.devsuperior.dscommerce.config.CompressorPool.Coding;
+import com.devsuperior.dscommerce.config.CompressorPool.CompressingStream;
+import com.devsuperior.dscommerce.dto.PageDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * CPU cost of compressing a {@code /products} page with the {@link CompressorPool} that
+ * {@code CompressionFilter} uses, against the bytes it keeps off the wire, for several page sizes,
+ * codings and levels.
+ * <p>
+ * The page is serialized in setup, so only the compression is measured; {@code identity} is the
+ * plain copy the filter makes when it does not compress. Setup prints the encoded size of each
+ * combination, so the extra microseconds per page can be weighed against the bytes saved: at
+ * 10 Mbit/s a kilobyte takes about 800 µs to send.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+	@Param({ "1", "10", "25", "100", "1000" })
+	public int pageSize;
+
+	@Param({ "identity", "gzip", "deflate" })
+	public String coding;
+
+	@Param({ "1", "6", "9" })
+	public int level;
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+	private byte[] json;
+	private Coding encoding;
+	private CompressorPool pool;
+
+	@Setup
+	public void setup() throws IOException {
+		json = new ObjectMapper().writeValueAsBytes(page(pageSize));
+		encoding = coding.equals("identity") ? null : Coding.valueOf(coding.toUpperCase(Locale.ROOT));
+		pool = new CompressorPool(level, 1);
+		int encoded = compress();
+		System.out.printf("%n%d products, %s level %d: %d -> %d bytes (%.1f%%)%n", pageSize, coding, level,
+				json.length, encoded, 100.0 * encoded / json.length);
+	}
+
+	@Benchmark
+	public int compress() throws IOException {
+		out.reset();
+		if (encoding == null) {
+			out.write(json);
+			return out.size();
+		}
+		CompressingStream stream = pool.open(encoding, out);
+		try {
+			stream.write(json);
+			stream.finish();
+		}
+		finally {
+			stream.release();
+		}
+		return out.size();
+	}
+
+	// Same shape as the pages the seeded catalog returns.
+	private static PageDTO<ProductMinDTO> page(int size) {
+		List<ProductMinDTO> content = new ArrayList<>(size);
+		for (int i = 1; i <= size; i++) {
+			content.add(new ProductMinDTO(new Product((long) i, "Produto " + i, "Descrição do produto " + i, 10.0 * i,
+					"https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/" + i + "-big.jpg")));
+		}
+		return new PageDTO<>(content, 0, size, size);
+	}
+}
@@ -0,0 +1,165 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.PageDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Payment;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Throughput of serializing and parsing the payloads the RA suites exchange, with each JSON
+ * library on the classpath: Jackson (the server side and RestAssured), json-simple, and the
+ * {@code org.json} API the suites build request bodies with, which comes from
+ * {@code android-json} through {@code spring-boot-starter-test}.
+ * <p>
+ * Every library works on its own generic model: Jackson on maps and {@link JsonNode}, json-simple
+ * on maps and its {@code JSONObject}, {@code org.json} on its {@link JSONObject}. The models are
+ * built in setup, so only the conversion to or from text is measured. Run with {@code -prof gc}
+ * for allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonPayloadBenchmark {
+
+	@Param({ "productPost", "productPut", "orderItems", "page25", "page1000", "orderView" })
+	public String payload;
+
+	private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	private String json;
+	private Map<String, Object> model;
+	private JSONObject orgJsonModel;
+
+	@Setup
+	public void setup() throws JsonProcessingException, JSONException {
+		model = switch (payload) {
+			case "productPost" -> product("Meu produto", 50.0);
+			case "productPut" -> product("Produto atualizado", 200.0);
+			case "orderItems" -> orderItems();
+			case "page25" -> toMap(page(25));
+			case "page1000" -> toMap(page(1000));
+			default -> toMap(new OrderDTO(order()));
+		};
+		json = mapper.writeValueAsString(model);
+		orgJsonModel = new JSONObject(json);
+	}
+
+	@Benchmark
+	public String serializeJackson() throws JsonProcessingException {
+		return mapper.writeValueAsString(model);
+	}
+
+	@Benchmark
+	public String serializeJsonSimple() {
+		return JSONValue.toJSONString(model);
+	}
+
+	@Benchmark
+	public String serializeOrgJson() {
+		return orgJsonModel.toString();
+	}
+
+	@Benchmark
+	public JsonNode parseJackson() throws JsonProcessingException {
+		return mapper.readTree(json);
+	}
+
+	@Benchmark
+	public Object parseJsonSimple() throws ParseException {
+		// JSONParser keeps state between calls, so each parse needs its own
+		return new JSONParser().parse(json);
+	}
+
+	@Benchmark
+	public JSONObject parseOrgJson() throws JSONException {
+		return new JSONObject(json);
+	}
+
+	// Same body as ProductControllerRA's post and put instances.
+	private static Map<String, Object> product(String name, double price) {
+		Map<String, Object> product = new HashMap<>();
+		product.put("name", name);
+		product.put("description", "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor "
+				+ "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation "
+				+ "ullamco laboris nisi ut aliquip ex ea commodo consequat.");
+		product.put("imgUrl", "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg");
+		product.put("price", price);
+		List<Map<String, Object>> categories = new ArrayList<>();
+		categories.add(Map.of("id", 2));
+		categories.add(Map.of("id", 3));
+		product.put("categories", categories);
+		return product;
+	}
+
+	// Same body as OrderControllerRA's post instance.
+	private static Map<String, Object> orderItems() {
+		List<Map<String, Object>> items = new ArrayList<>();
+		items.add(Map.of("productId", 1, "quantity", 2));
+		items.add(Map.of("productId", 5, "quantity", 1));
+		Map<String, Object> order = new HashMap<>();
+		order.put("items", items);
+		return order;
+	}
+
+	private static PageDTO<ProductMinDTO> page(int size) {
+		List<ProductMinDTO> content = new ArrayList<>(size);
+		for (int i = 1; i <= size; i++) {
+			content.add(new ProductMinDTO(new Product((long) i, "Produto " + i, "Descrição do produto " + i, 10.0 * i,
+					"https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/" + i + "-big.jpg")));
+		}
+		return new PageDTO<>(content, 0, size, size);
+	}
+
+	private static Order order() {
+		User client = new User(1L, "Maria Brown", "maria@gmail.com", "988888888", null, "123456");
+		Order order = new Order(1L, Instant.parse("2022-07-25T13:00:00Z"), OrderStatus.PAID, client,
+				new Payment(1L, Instant.parse("2022-07-25T15:00:00Z")));
+		for (int i = 1; i <= 3; i++) {
+			Product product = new Product((long) i, "Produto " + i, "Descrição do produto " + i, 10.0 * i, null);
+			order.getItems().add(new OrderItem(product, i, product.getPrice()));
+		}
+		return order;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> toMap(Object dto) {
+		return mapper.convertValue(dto, Map.class);
+	}
+}
@@ -0,0 +1,95 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscommerce.dto.ClientDTO;
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.dto.PaymentDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Payment;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+
+/**
+ * Latency of {@code GET /orders/{id}} reads: the precomputed view behind
+ * {@link OrderRepository#findViewById(Long)} against assembling the response from the order,
+ * its client, payment and items on every call, as the service did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReadBenchmark {
+
+	@Param({ "1", "10", "100" })
+	public int items;
+
+	private OrderRepository repository;
+	private Long orderId;
+
+	@Setup
+	public void setup() {
+		repository = new OrderRepository();
+		User client = new User(1L, "Maria Brown", "maria@gmail.com", "988888888", null, "123456");
+		Order order = new Order(null, Instant.parse("2022-07-25T13:00:00Z"), OrderStatus.PAID, client,
+				new Payment(1L, Instant.parse("2022-07-25T15:00:00Z")));
+		for (int i = 1; i <= items; i++) {
+			Product product = new Product((long) i, "Produto " + i, "Descrição do produto " + i, 10.0 * i, null);
+			order.getItems().add(new OrderItem(product, 1 + i % 3, product.getPrice()));
+		}
+		orderId = repository.save(order).getId();
+	}
+
+	@Benchmark
+	public OrderDTO precomputedView() {
+		return repository.findViewById(orderId).orElseThrow();
+	}
+
+	@Benchmark
+	public AssembledOrder assembledPerRead() {
+		Order order = repository.findById(orderId).orElseThrow();
+		return new AssembledOrder(order);
+	}
+
+	/** The per-read assembly the view replaced: DTO graph built and total summed on every call. */
+	public static class AssembledOrder {
+
+		public final ClientDTO client;
+		public final PaymentDTO payment;
+		public final List<OrderItemDTO> items = new ArrayList<>();
+		public final double total;
+
+		AssembledOrder(Order order) {
+			client = new ClientDTO(order.getClient());
+			payment = order.getPayment() == null ? null : new PaymentDTO(order.getPayment());
+			double sum = 0.0;
+			for (OrderItem item : order.getItems()) {
+				OrderItemDTO dto = new OrderItemDTO(item);
+				items.add(dto);
+				sum += dto.getSubTotal();
+			}
+			total = sum;
+		}
+	}
+}
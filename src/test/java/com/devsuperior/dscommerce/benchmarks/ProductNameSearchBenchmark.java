@@ -0,0 +1,76 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Latency of {@code GET /products?name=} lookups: the trigram index behind
+ * {@link ProductRepository#searchByName(String)} against the case-insensitive linear scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductNameSearchBenchmark {
+
+	private static final String[] BRANDS = { "Acer", "Asus", "Dell", "Lenovo", "Samsung", "LG", "Apple", "Sony", "Positivo", "Multilaser" };
+	private static final String[] KINDS = { "PC Gamer", "Notebook", "Smart TV", "Monitor", "Tablet", "Headset", "Teclado", "Mouse", "Macbook", "Console" };
+
+	@Param({ "10000", "100000", "1000000" })
+	public int catalogSize;
+
+	@Param({ "Macbook", "Samsung Monitor 42" })
+	public String term;
+
+	private ProductRepository repository;
+	private List<Product> products;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		repository = new ProductRepository();
+		products = new ArrayList<>(catalogSize);
+		for (long id = 1; id <= catalogSize; id++) {
+			String name = BRANDS[random.nextInt(BRANDS.length)] + " " + KINDS[random.nextInt(KINDS.length)] + " " + random.nextInt(1000);
+			Product product = repository.save(new Product(id, name, "Descrição do produto " + id, 100.0 + random.nextInt(5000), null));
+			products.add(product);
+		}
+	}
+
+	@Benchmark
+	public List<Product> trigramIndex() {
+		return repository.searchByName(term);
+	}
+
+	@Benchmark
+	public List<Product> linearScan() {
+		String upper = term.toUpperCase(Locale.ROOT);
+		List<Product> result = new ArrayList<>();
+		for (Product product : products) {
+			if (product.getName().toUpperCase(Locale.ROOT).contains(upper)) {
+				result.add(product);
+			}
+		}
+		return result;
+	}
+}
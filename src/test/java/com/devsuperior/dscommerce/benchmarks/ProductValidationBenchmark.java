@@ -0,0 +1,128 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import com.devsuperior.dscommerce.controllers.ProductController;
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.FieldMessage;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ValidationError;
+import com.devsuperior.dscommerce.services.ProductValidator;
+import com.devsuperior.dscommerce.services.exceptions.InvalidDataException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Cost of validating a product insert payload and, when it is invalid, turning it into the 422
+ * body: {@link ProductValidator} plus {@link InvalidDataException}, against bean validation
+ * plus the {@link MethodArgumentNotValidException} that {@code @Valid} used to raise.
+ * Run with {@code -prof gc} to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductValidationBenchmark {
+
+	@Param({ "valid", "shortName", "allInvalid" })
+	public String payload;
+
+	private ValidatorFactory factory;
+	private Validator beanValidator;
+	private ProductValidator precompiled;
+	private MethodParameter parameter;
+	private ProductDTO dto;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		factory = Validation.buildDefaultValidatorFactory();
+		beanValidator = factory.getValidator();
+		precompiled = new ProductValidator();
+		parameter = new MethodParameter(ProductController.class.getMethod("insert", ProductDTO.class), 0);
+		dto = switch (payload) {
+			case "valid" -> product("Meu produto", "Lorem ipsum dolor sit amet", 50.0, true);
+			case "shortName" -> product("ab", "Lorem ipsum dolor sit amet", 50.0, true);
+			default -> product("ab", "Lorem", -50.0, false);
+		};
+	}
+
+	@TearDown
+	public void tearDown() {
+		factory.close();
+	}
+
+	@Benchmark
+	public ValidationError precompiled() {
+		try {
+			List<FieldMessage> errors = precompiled.validate(dto);
+			if (!errors.isEmpty()) {
+				throw new InvalidDataException(errors);
+			}
+			return null;
+		}
+		catch (InvalidDataException e) {
+			ValidationError err = new ValidationError(Instant.EPOCH, 422, e.getMessage(), "/products");
+			for (FieldMessage f : e.getErrors()) {
+				err.addError(f.getFieldName(), f.getMessage());
+			}
+			return err;
+		}
+	}
+
+	@Benchmark
+	public ValidationError beanValidation() {
+		try {
+			Set<ConstraintViolation<ProductDTO>> violations = beanValidator.validate(dto);
+			if (!violations.isEmpty()) {
+				BeanPropertyBindingResult result = new BeanPropertyBindingResult(dto, "productDTO");
+				for (ConstraintViolation<ProductDTO> v : violations) {
+					String field = v.getPropertyPath().toString();
+					result.addError(new FieldError("productDTO", field, v.getInvalidValue(), false, null, null,
+							v.getMessage()));
+				}
+				throw new MethodArgumentNotValidException(parameter, result);
+			}
+			return null;
+		}
+		catch (MethodArgumentNotValidException e) {
+			ValidationError err = new ValidationError(Instant.EPOCH, 422, "Dados inválidos", "/products");
+			for (FieldError f : e.getBindingResult().getFieldErrors()) {
+				err.addError(f.getField(), f.getDefaultMessage());
+			}
+			return err;
+		}
+	}
+
+	private static ProductDTO product(String name, String description, double price, boolean withCategory) {
+		ProductDTO product = new ProductDTO(null, name, description, price, null);
+		if (withCategory) {
+			product.getCategories().add(new CategoryDTO(2L, "Eletrônicos"));
+		}
+		return product;
+	}
+}
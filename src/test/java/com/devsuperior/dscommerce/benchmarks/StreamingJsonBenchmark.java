@@ -0,0 +1,87 @@
+package com.devsuperior.dscommerce.benchmarks;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscommerce.tests.StreamingJson;
+
+import io.restassured.path.json.JsonPath;
+
+/**
+ * Cost of asserting "every {@code content[].price} is positive and some {@code content[].name}
+ * is the last product" on a large page body: GPath on RestAssured's {@link JsonPath}, which
+ * builds the Groovy object tree first, against a single pass of {@link StreamingJson}.
+ * Run with {@code -prof gc} to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingJsonBenchmark {
+
+	@Param({ "10" })
+	public int megabytes;
+
+	private byte[] body;
+	private String lastName;
+
+	@Setup
+	public void setup() {
+		StringBuilder json = new StringBuilder("{\"content\":[");
+		int count = 0;
+		while (json.length() < megabytes * 1024 * 1024) {
+			if (count > 0) {
+				json.append(',');
+			}
+			count++;
+			json.append("{\"id\":").append(count)
+					.append(",\"name\":\"Produto ").append(count)
+					.append("\",\"description\":\"Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor ")
+					.append("incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation.\"")
+					.append(",\"price\":").append(10.0 + count % 5000)
+					.append(",\"imgUrl\":\"https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/")
+					.append(count % 30).append("-big.jpg\"}");
+		}
+		json.append("],\"number\":0,\"size\":").append(count).append(",\"totalElements\":").append(count).append('}');
+		body = json.toString().getBytes(StandardCharsets.UTF_8);
+		lastName = "Produto " + count;
+	}
+
+	@Benchmark
+	public List<String> gpath() {
+		JsonPath path = new JsonPath(new ByteArrayInputStream(body));
+		assertThat(path.getList("content.price", Double.class), everyItem(greaterThan(0.0)));
+		List<String> names = path.getList("content.name", String.class);
+		assertThat(names, hasItem(lastName));
+		return names;
+	}
+
+	@Benchmark
+	public void streaming() {
+		StreamingJson.of(new ByteArrayInputStream(body))
+				.every("content[].price", greaterThan(0.0))
+				.contains("content[].name", lastName)
+				.verify();
+	}
+}
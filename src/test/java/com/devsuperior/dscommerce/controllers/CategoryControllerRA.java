@@ -1,26 +1,45 @@
 package com.devsuperior.dscommerce.controllers;
 
-import static io.restassured.RestAssured.baseURI;
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.emptyString;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.devsuperior.dscommerce.tests.ApiSpecs;
+
 public class CategoryControllerRA {
 	
-	@BeforeEach
-	public void setup() {
-		baseURI = "http://localhost:8080";
-	}
-	
 	@Test
 	public void findAllShouldReturnListOfCategories() {
 		given()
+			.spec(ApiSpecs.anonymous())
 			.get("/categories")
 		.then()
 			.statusCode(200)
 			.body("id", hasItems(1, 2, 3))
 			.body("name", hasItems("Livros", "Eletrônicos", "Computadores"));
 	}
+
+	@Test
+	public void findAllShouldReturnNotModifiedWhenETagMatches() {
+		String etag = given()
+			.spec(ApiSpecs.anonymous())
+			.get("/categories")
+		.then()
+			.statusCode(200)
+			.header("ETag", notNullValue())
+			.extract().header("ETag");
+
+		given()
+			.spec(ApiSpecs.anonymous())
+			.header("If-None-Match", etag)
+			.get("/categories")
+		.then()
+			.statusCode(304)
+			.header("ETag", equalTo(etag))
+			.body(emptyString());
+	}
 }
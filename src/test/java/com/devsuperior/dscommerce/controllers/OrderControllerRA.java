@@ -3,17 +3,29 @@ package com.devsuperior.dscommerce.controllers;
 import org.junit.jupiter.api.BeforeEach;
 import static io.restassured.RestAssured.*;
 import static org.hamcrest.Matchers.*;
+import com.devsuperior.dscommerce.tests.ApiSpecs;
+import com.devsuperior.dscommerce.tests.DatasetExtension;
 import com.devsuperior.dscommerce.tests.TokenUtil;
-import io.restassured.http.ContentType;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@ExtendWith(DatasetExtension.class)
 public class OrderControllerRA {
 
     private String clientUsername, clientPassword, adminUsername, adminPassword, adminOnlyUsername, adminOnlyPassword;
@@ -23,9 +35,7 @@ public class OrderControllerRA {
     private Map<String, List<Map<String, Object>>> postOrderInstance;
 
     @BeforeEach
-    void setUp() throws Exception{
-
-        baseURI = "http://localhost:8080";
+    public void setUp() throws Exception{
 		
 		clientUsername = "maria@gmail.com";
 		clientPassword = "123456";
@@ -61,8 +71,7 @@ public class OrderControllerRA {
     @Test
     public void findByIdShouldReturnOrderWhenIdExistsAndAdminLogged(){
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
                 .when().get("/orders/{id}", existingOrderId)
                 .then().statusCode(200)
                 .body("id", is(1))
@@ -77,8 +86,7 @@ public class OrderControllerRA {
     @Test
     public void findByIdShouldReturnOrderWhenIdExistsAndClientLogged(){
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + clientToken)
-                .accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(clientToken))
                 .when().get("/orders/{id}", existingOrderId)
                 .then().statusCode(200)
                 .body("id", is(1))
@@ -95,8 +103,7 @@ public class OrderControllerRA {
 
         Long otherOrderId = 2L;
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + clientToken)
-                .accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(clientToken))
                 .when().get("/orders/{id}", otherOrderId)
                 .then().statusCode(403);
     }
@@ -104,8 +111,7 @@ public class OrderControllerRA {
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExistsAndAdminLogged(){
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
                 .when().get("/orders/{id}", nonExistingOrderId)
                 .then().statusCode(404);
     }
@@ -113,8 +119,7 @@ public class OrderControllerRA {
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExistsAndClientLogged(){
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + clientToken)
-                .accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(clientToken))
                 .when().get("/orders/{id}", nonExistingOrderId)
                 .then().statusCode(404);
     }
@@ -122,8 +127,7 @@ public class OrderControllerRA {
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExistsAndInvalidToken(){
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + invalidToken)
-                .accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(invalidToken))
                 .when().get("/orders/{id}", existingOrderId)
                 .then().statusCode(401);
     }
@@ -133,10 +137,7 @@ public class OrderControllerRA {
 		JSONObject newOrder = new JSONObject(postOrderInstance);
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + clientToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(clientToken))
 			.body(newOrder)
 		.when()
 			.post("/orders")
@@ -154,10 +155,7 @@ public class OrderControllerRA {
 		JSONObject newOrder = new JSONObject(postOrderInstance);
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + clientToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(clientToken))
 			.body(newOrder)
 		.when()
 			.post("/orders")
@@ -170,10 +168,7 @@ public class OrderControllerRA {
 		JSONObject newOrder = new JSONObject(postOrderInstance);
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminOnlyToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(adminOnlyToken))
 			.body(newOrder)
 		.when()
 			.post("/orders")
@@ -186,14 +181,208 @@ public class OrderControllerRA {
 		JSONObject newOrder = new JSONObject(postOrderInstance);
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + invalidToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(invalidToken))
 			.body(newOrder)
 		.when()
 			.post("/orders")
 		.then()
 			.statusCode(401);
 	}
+
+	@Test
+	public void insertShouldReturnConflictAndReserveNothingWhenAnyItemIsOutOfStock() throws JSONException {
+		int availableId = createProductWithStock(1);
+		int soldOutId = createProductWithStock(0);
+
+		given()
+			.spec(ApiSpecs.json(clientToken))
+			.body(new JSONObject(orderOf(Map.of(availableId, 1, soldOutId, 1))))
+		.when()
+			.post("/orders")
+		.then()
+			.statusCode(409)
+			.body("error", equalTo("Estoque insuficiente para o produto " + soldOutId));
+
+		given()
+			.spec(ApiSpecs.bearer(adminToken))
+		.when()
+			.get("/products/{id}/stock", availableId)
+		.then()
+			.statusCode(200)
+			.body("quantity", is(1));
+	}
+
+	@Test
+	public void insertShouldNeverOversellWhenOrdersRaceForSameProduct() throws Exception {
+		int orders = Integer.getInteger("ra.stress.orders", 200);
+		int stock = orders / 4;
+		int productId = createProductWithStock(stock);
+		String body = new JSONObject(orderOf(Map.of(productId, 1))).toString();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Integer.getInteger("ra.stress.threads", 16));
+		List<Future<Integer>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < orders; i++) {
+				Callable<Integer> placeOrder = DatasetExtension.inCurrentDataset(() -> given()
+						.spec(ApiSpecs.untimedJson(clientToken))
+						.body(body)
+						.post("/orders")
+						.statusCode());
+				results.add(executor.submit(placeOrder));
+			}
+			int created = 0;
+			int conflicts = 0;
+			for (Future<Integer> result : results) {
+				int status = result.get();
+				if (status == 201) {
+					created++;
+				} else if (status == 409) {
+					conflicts++;
+				}
+			}
+
+			assertThat(created, is(stock));
+			assertThat(conflicts, is(orders - stock));
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		given()
+			.spec(ApiSpecs.bearer(adminToken))
+		.when()
+			.get("/products/{id}/stock", productId)
+		.then()
+			.statusCode(200)
+			.body("quantity", is(0));
+	}
+
+	@Test
+	public void insertBatchShouldReturnPerOrderResultsWhenBatchIsMixed() throws JSONException {
+		Map<String, Object> noItems = new HashMap<>();
+		noItems.put("items", new ArrayList<>());
+		JSONArray batch = new JSONArray()
+			.put(new JSONObject(postOrderInstance))
+			.put(new JSONObject(noItems))
+			.put(new JSONObject(orderOf(Map.of(1000, 1))))
+			.put(new JSONObject(orderOf(Map.of(3, 2))));
+
+		given()
+			.spec(ApiSpecs.json(clientToken))
+			.body(batch.toString())
+		.when()
+			.post("/orders/batch")
+		.then()
+			.statusCode(200)
+			.body("size()", is(4))
+			.body("index", contains(0, 1, 2, 3))
+			.body("status", contains(201, 422, 404, 201))
+			.body("[0].order.status", equalTo("WAITING_PAYMENT"))
+			.body("[0].order.client.name", equalTo("Maria Brown"))
+			.body("[0].order.items.name", hasItems("The Lord of the Rings", "Rails for Dummies"))
+			.body("[0].order.total", is(281.99F))
+			.body("[1].order", nullValue())
+			.body("[1].error.status", is(422))
+			.body("[1].error.error", equalTo("Dados inválidos"))
+			.body("[1].error.path", equalTo("/orders/batch"))
+			.body("[1].error.errors.fieldName", hasItems("items"))
+			.body("[1].error.errors.message", hasItems("Deve ter pelo menos um item"))
+			.body("[2].error.error", equalTo("Recurso não encontrado"))
+			.body("[3].order.total", is(2500.0F));
+	}
+
+	@Test
+	public void insertBatchShouldRejectOnlyNullEntryWhenBatchContainsNull() throws JSONException {
+		JSONArray batch = new JSONArray()
+			.put(JSONObject.NULL)
+			.put(new JSONObject(postOrderInstance));
+
+		given()
+			.spec(ApiSpecs.json(clientToken))
+			.body(batch.toString())
+		.when()
+			.post("/orders/batch")
+		.then()
+			.statusCode(200)
+			.body("status", contains(422, 201))
+			.body("[0].order", nullValue())
+			.body("[0].error.error", equalTo("Dados inválidos"))
+			.body("[0].error.errors.fieldName", hasItems("items"))
+			.body("[1].order.client.name", equalTo("Maria Brown"));
+	}
+
+	@Test
+	public void insertBatchShouldCreateOrdersReadableByTheirClient() throws JSONException {
+		JSONArray batch = new JSONArray();
+		for (int i = 0; i < 20; i++) {
+			batch.put(new JSONObject(postOrderInstance));
+		}
+
+		List<Integer> ids = given()
+			.spec(ApiSpecs.json(clientToken))
+			.body(batch.toString())
+		.when()
+			.post("/orders/batch")
+		.then()
+			.statusCode(200)
+			.body("status", everyItem(is(201)))
+			.extract().path("order.id");
+
+		assertThat(ids.stream().distinct().count(), is(20L));
+		given()
+			.spec(ApiSpecs.json(clientToken))
+		.when()
+			.get("/orders/{id}", ids.get(19))
+		.then()
+			.statusCode(200)
+			.body("client.name", equalTo("Maria Brown"));
+	}
+
+	@Test
+	public void insertBatchShouldReturnForbiddenWhenAdminLogged() throws JSONException {
+		JSONArray batch = new JSONArray().put(new JSONObject(postOrderInstance));
+
+		given()
+			.spec(ApiSpecs.json(adminOnlyToken))
+			.body(batch.toString())
+		.when()
+			.post("/orders/batch")
+		.then()
+			.statusCode(403);
+	}
+
+	private int createProductWithStock(int quantity) {
+		Map<String, Object> product = new HashMap<>();
+		product.put("name", "Produto em estoque");
+		product.put("description", "Produto criado para os testes de estoque");
+		product.put("price", 10.0);
+		product.put("imgUrl", "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/1-big.jpg");
+		product.put("categories", List.of(Map.of("id", 1)));
+
+		int id = given()
+			.spec(ApiSpecs.json(adminToken))
+			.body(new JSONObject(product))
+		.when()
+			.post("/products")
+		.then()
+			.statusCode(201)
+			.extract().path("id");
+
+		given()
+			.spec(ApiSpecs.json(adminToken))
+			.body(new JSONObject(Map.of("quantity", quantity)))
+		.when()
+			.put("/products/{id}/stock", id)
+		.then()
+			.statusCode(200);
+		return id;
+	}
+
+	// Sorted, so the same order always serializes to the same body (and replays from the same tape entry).
+	private static Map<String, List<Map<String, Object>>> orderOf(Map<Integer, Integer> quantities) {
+		List<Map<String, Object>> items = new ArrayList<>();
+		new TreeMap<>(quantities).forEach((productId, quantity) ->
+				items.add(new TreeMap<>(Map.of("productId", productId, "quantity", quantity))));
+		return Map.of("items", items);
+	}
 }
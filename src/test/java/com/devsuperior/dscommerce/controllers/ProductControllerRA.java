@@ -1,21 +1,56 @@
 package com.devsuperior.dscommerce.controllers;
 
+import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.tests.ApiSpecs;
+import com.devsuperior.dscommerce.tests.DatasetExtension;
+import com.devsuperior.dscommerce.tests.RecordReplay;
+import com.devsuperior.dscommerce.tests.StandInServer;
+import com.devsuperior.dscommerce.tests.StreamingJson;
 import com.devsuperior.dscommerce.tests.TokenUtil;
-import io.restassured.http.ContentType;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static io.restassured.RestAssured.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+@ExtendWith(DatasetExtension.class)
 public class ProductControllerRA {
 
     private String clientUsername, clientPassword, adminUsername, adminPassword;
@@ -29,8 +64,6 @@ public class ProductControllerRA {
     @BeforeEach
     public void setUp(){
 
-        baseURI = "http://localhost:8080";
-
         clientUsername = "maria@gmail.com";
         clientPassword = "123456";
         adminUsername = "alex@gmail.com";
@@ -74,6 +107,7 @@ public class ProductControllerRA {
 		nonExistingProductId = 100L;
 		
 		given()
+			.spec(ApiSpecs.anonymous())
 			.get("/movies/{id}", nonExistingProductId)
 		.then()
 			.statusCode(404)
@@ -86,7 +120,7 @@ public class ProductControllerRA {
 
         existingProductId = 2L;
 
-        given().get("/products/{id}", existingProductId).then().statusCode(200)
+        given().spec(ApiSpecs.anonymous()).get("/products/{id}", existingProductId).then().statusCode(200)
                 .body("id", is(2))
                 .body("name", equalTo("Smart TV"))
                 .body("imgUrl", equalTo("https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/2-big.jpg"))
@@ -95,17 +129,131 @@ public class ProductControllerRA {
                 .body("categories.name", hasItems("Eletrônicos","Computadores"));
     }
 
+    @Test
+    public void findByIdShouldReturnNotModifiedUntilProductIsUpdated(){
+
+        JSONObject newProduct = new JSONObject(postProductInstance);
+        Integer id = given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
+                .when().post("/products").then().statusCode(201)
+                .extract().path("id");
+
+        String etag = given().spec(ApiSpecs.anonymous()).get("/products/{id}", id).then().statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given().spec(ApiSpecs.anonymous()).header("If-None-Match", etag)
+                .get("/products/{id}", id).then().statusCode(304)
+                .body(emptyString());
+
+        JSONObject product = new JSONObject(putProductInstance);
+        given().spec(ApiSpecs.json(adminToken))
+                .body(product)
+                .when().put("/products/{id}", id).then().statusCode(200);
+
+        given().spec(ApiSpecs.anonymous()).header("If-None-Match", etag)
+                .get("/products/{id}", id).then().statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("name", equalTo("Produto atualizado"));
+    }
+
+    @Test
+    public void findByIdShouldNeverServeCachedProductAfterUpdateOrDelete(){
+
+        JSONObject newProduct = new JSONObject(postProductInstance);
+        Integer id = given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
+                .when().post("/products").then().statusCode(201)
+                .extract().path("id");
+
+        String etag = null;
+        for (int i = 0; i < 3; i++) {
+            etag = given().spec(ApiSpecs.anonymous()).get("/products/{id}", id).then().statusCode(200)
+                    .body("name", equalTo("Meu produto"))
+                    .header("ETag", etag == null ? notNullValue() : equalTo(etag))
+                    .extract().header("ETag");
+        }
+
+        JSONObject product = new JSONObject(putProductInstance);
+        given().spec(ApiSpecs.json(adminToken))
+                .body(product)
+                .when().put("/products/{id}", id).then().statusCode(200);
+
+        given().spec(ApiSpecs.anonymous()).header("If-None-Match", etag)
+                .get("/products/{id}", id).then().statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("name", equalTo("Produto atualizado"))
+                .body("price", is(200.0F));
+
+        given().spec(ApiSpecs.bearer(adminToken))
+                .when().delete("/products/{id}", id).then().statusCode(204);
+
+        given().spec(ApiSpecs.anonymous()).get("/products/{id}", id).then().statusCode(404);
+
+        given().spec(ApiSpecs.bearer(adminToken)).get("/products/cache").then().statusCode(200)
+                .body("hits", greaterThanOrEqualTo(2));
+    }
+
+    @Test
+    public void findByIdShouldServeBodyAndETagOfSameVersionWhileProductIsUpdated() throws Exception {
+
+        JSONObject newProduct = new JSONObject(postProductInstance);
+        Integer id = given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
+                .when().post("/products").then().statusCode(201)
+                .extract().path("id");
+
+        int updates = 20;
+        Map<String, Set<String>> namesByEtag = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> work = new ArrayList<>();
+            work.add(executor.submit(DatasetExtension.inCurrentDataset(() -> {
+                for (int i = 0; i < updates; i++) {
+                    given().spec(ApiSpecs.untimedJson(adminToken))
+                            .body(new JSONObject(putProductInstance).put("name", "Produto atualizado " + i))
+                            .put("/products/{id}", id).then().statusCode(200);
+                }
+                return null;
+            })));
+            for (int reader = 0; reader < 3; reader++) {
+                work.add(executor.submit(DatasetExtension.inCurrentDataset(() -> {
+                    for (int i = 0; i < updates * 2; i++) {
+                        Response response = given().spec(ApiSpecs.untimedJson(adminToken)).get("/products/{id}", id);
+                        namesByEtag.computeIfAbsent(response.header("ETag"), k -> ConcurrentHashMap.newKeySet())
+                                .add(response.path("name"));
+                    }
+                    return null;
+                })));
+            }
+            for (Future<Object> result : work) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        namesByEtag.forEach((etag, names) -> assertThat("bodies served with " + etag, names, hasSize(1)));
+        String etag = given().spec(ApiSpecs.anonymous()).get("/products/{id}", id).then().statusCode(200)
+                .body("name", equalTo("Produto atualizado " + (updates - 1)))
+                .extract().header("ETag");
+        assertThat(namesByEtag.getOrDefault(etag, Set.of()), everyItem(equalTo("Produto atualizado " + (updates - 1))));
+        given().spec(ApiSpecs.anonymous()).header("If-None-Match", etag)
+                .get("/products/{id}", id).then().statusCode(304);
+    }
+
     @Test
     public void findAllShouldReturnPageProductsWhenProductNameIsEmpty(){
 
-        given().get("/products?page=0").then().statusCode(200)
+        given().spec(ApiSpecs.anonymous()).get("/products?page=0").then().statusCode(200)
                 .body("content.name", hasItems("Macbook Pro", "PC Gamer Tera"));
     }
 
     @Test
     public void findAllShouldReturnPageProductsWhenProductNameIsNotEmpty(){
 
-        given().get("/products?name={productName}", productName).then().statusCode(200)
+        given().spec(ApiSpecs.anonymous()).get("/products?name={productName}", productName).then().statusCode(200)
                 .body("content.id[0]", is(3))
                 .body("content.name[0]", equalTo("Macbook Pro"))
                 .body("content.price[0]", is(1250.0F))
@@ -115,8 +263,387 @@ public class ProductControllerRA {
     @Test
     public void findAllShouldReturnPagedProductsWithPriceGreaterThan2000(){
 
-        given().get("/products?size=25").then().statusCode(200)
-                .body("content.findAll { it.price > 2000 }.name", hasItems("Smart TV", "PC Gamer Weed"));
+        given().spec(ApiSpecs.anonymous()).get("/products?minPrice=2000").then().statusCode(200)
+                .body("content.price", everyItem(greaterThanOrEqualTo(2000.0F)))
+                .body("content.name", hasItems("Smart TV", "PC Gamer Weed"));
+    }
+
+    @Test
+    public void findAllShouldReturnProductsWithinPriceRangeAndName(){
+
+        given().spec(ApiSpecs.anonymous()).get("/products?name=pc gamer&minPrice=1000&maxPrice=1300").then().statusCode(200)
+                .body("content.price", everyItem(allOf(greaterThanOrEqualTo(1000.0F), lessThanOrEqualTo(1300.0F))))
+                .body("content.name", everyItem(containsStringIgnoringCase("PC Gamer")))
+                .body("content.name", hasItems("PC Gamer", "PC Gamer Turbo"))
+                .body("content.name", not(hasItem("Macbook Pro")));
+    }
+
+    @Test
+    public void findAllShouldMatchStreamingAssertionsOnLargePage(){
+
+        StreamingJson.of(given().spec(ApiSpecs.anonymous()).get("/products?size=1000&minPrice=2000").then()
+                        .statusCode(200).extract().asInputStream())
+                .every("content[].price", greaterThanOrEqualTo(2000.0))
+                .contains("content[].name", "Smart TV", "PC Gamer Weed")
+                .count("content[]", greaterThanOrEqualTo(2))
+                .verify();
+
+        AssertionError error = assertThrows(AssertionError.class, () -> StreamingJson.of(
+                        given().spec(ApiSpecs.anonymous()).get("/products?size=1000").then()
+                                .statusCode(200).extract().asInputStream())
+                .every("content[].price", greaterThanOrEqualTo(2000.0))
+                .contains("content[].name", "Produto inexistente")
+                .verify());
+        assertThat(error.getMessage(), containsString("content[].price"));
+        assertThat(error.getMessage(), containsString("Produto inexistente"));
+    }
+
+    @Test
+    public void findAllShouldCompressLargePageWithNegotiatedEncoding() throws IOException {
+
+        byte[] identity = given().spec(ApiSpecs.undecoded()).header("Accept-Encoding", "identity")
+                .get("/products?size=25").then().statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .extract().asByteArray();
+
+        for (String coding : List.of("gzip", "deflate")) {
+            byte[] compressed = given().spec(ApiSpecs.undecoded()).header("Accept-Encoding", coding)
+                    .get("/products?size=25").then().statusCode(200)
+                    .header("Content-Encoding", coding)
+                    .header("Vary", containsString("Accept-Encoding"))
+                    .extract().asByteArray();
+
+            assertThat(decode(coding, compressed), equalTo(identity));
+            assertThat(compressed.length, lessThan(identity.length / 4));
+        }
+
+        given().spec(ApiSpecs.undecoded()).header("Accept-Encoding", "gzip;q=0.5, deflate")
+                .get("/products?size=25").then().statusCode(200)
+                .header("Content-Encoding", "deflate");
+    }
+
+    @Test
+    public void findByIdShouldNotCompressResponseBelowThreshold(){
+
+        given().spec(ApiSpecs.undecoded()).header("Accept-Encoding", "gzip")
+                .get("/products/{id}", 1).then().statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body("name", equalTo("The Lord of the Rings"));
+    }
+
+    @Test
+    public void exportShouldCompressStreamWhenGzipAccepted() throws IOException {
+
+        byte[] identity = given().spec(ApiSpecs.undecoded()).header("Accept-Encoding", "identity")
+                .get("/products/export").then().statusCode(200)
+                .extract().asByteArray();
+        byte[] compressed = given().spec(ApiSpecs.undecoded()).header("Accept-Encoding", "gzip")
+                .get("/products/export").then().statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .contentType(startsWith("application/x-ndjson"))
+                .extract().asByteArray();
+
+        assertThat(decode("gzip", compressed), equalTo(identity));
+        assertThat(compressed.length, lessThan(identity.length / 4));
+    }
+
+    @Test
+    public void findAllByCursorShouldWalkWholeCatalogWithoutDuplicatesOrGaps(){
+
+        List<Integer> before = allProductIds();
+        List<Integer> walked = walkByCursor(7, null);
+        List<Integer> after = allProductIds();
+
+        assertStrictlyAscending(walked);
+        List<Integer> stable = new ArrayList<>(before);
+        stable.retainAll(after);
+        assertThat(walked, hasItems(stable.toArray(new Integer[0])));
+    }
+
+    @Test
+    public void findAllByCursorShouldStayStableWhenProductIsInsertedDuringWalk(){
+
+        JSONObject newProduct = new JSONObject(postProductInstance);
+        List<Integer> before = allProductIds();
+
+        List<Integer> walked = walkByCursor(5, () -> given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
+                .when().post("/products").then().statusCode(201)
+                .extract().path("id"));
+
+        assertStrictlyAscending(walked);
+        List<Integer> stable = new ArrayList<>(before);
+        stable.retainAll(allProductIds());
+        assertThat(walked, hasItems(stable.toArray(new Integer[0])));
+    }
+
+    @Test
+    public void findAllByCursorShouldApplyFilters(){
+
+        given().spec(ApiSpecs.anonymous()).get("/products?cursor=&name=pc gamer&minPrice=2000&size=2").then().statusCode(200)
+                .body("content.size()", is(2))
+                .body("content.price", everyItem(greaterThanOrEqualTo(2000.0F)))
+                .body("nextCursor", notNullValue());
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnBadRequestWhenCursorIsInvalid(){
+
+        given().spec(ApiSpecs.anonymous()).get("/products?cursor=xpto").then().statusCode(400)
+                .body("error", equalTo("Cursor inválido"));
+    }
+
+    @Test
+    public void exportShouldStreamEveryProductOnceInIdOrder() throws IOException, JSONException {
+
+        List<Integer> before = allProductIds();
+        List<Integer> exported = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                given().spec(ApiSpecs.anonymous()).get("/products/export").then()
+                        .statusCode(200)
+                        .contentType(startsWith("application/x-ndjson"))
+                        .extract().asInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JSONObject product = new JSONObject(line);
+                assertThat(product.getString("name"), not(emptyString()));
+                assertThat(product.getJSONArray("categories").length(), greaterThan(0));
+                exported.add(product.getInt("id"));
+            }
+        }
+
+        assertStrictlyAscending(exported);
+        List<Integer> stable = new ArrayList<>(before);
+        stable.retainAll(allProductIds());
+        assertThat(exported, hasItems(stable.toArray(new Integer[0])));
+    }
+
+    @Test
+    @Tag("perf")
+    public void exportShouldStreamWholeCatalogAsNdjsonInConstantMemory() throws IOException, JSONException {
+
+        int total = Integer.getInteger("ra.export.products", 1_000_000);
+        long maxHeapGrowth = Long.getLong("ra.export.maxHeapGrowthMb", 64) * 1024 * 1024;
+
+        // A private stand-in keeps a million products away from the suites sharing the default server.
+        ConfigurableApplicationContext server = StandInServer.startIsolated();
+        try {
+            ProductRepository products = server.getBean(ProductRepository.class);
+            Category category = server.getBean(CategoryRepository.class).findById(1L).orElseThrow();
+            for (int i = products.searchByName("").size(); i < total; i++) {
+                Product product = new Product(null, "Produto exportado " + i, "Produto gerado para exportação", 10.0 + i % 1000, "");
+                product.getCategories().add(category);
+                products.save(product);
+            }
+
+            long baseline = usedHeapAfterGc();
+            long previousId = 0;
+            int lines = 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    given().baseUri(StandInServer.baseUri(server)).get("/products/export").then()
+                            .statusCode(200)
+                            .contentType(startsWith("application/x-ndjson"))
+                            .extract().asInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JSONObject product = new JSONObject(line);
+                    assertThat(product.getLong("id"), greaterThan(previousId));
+                    assertThat(product.getJSONArray("categories").length(), greaterThan(0));
+                    previousId = product.getLong("id");
+                    if (++lines % 250_000 == 0) {
+                        assertThat(usedHeapAfterGc() - baseline, lessThan(maxHeapGrowth));
+                    }
+                }
+            }
+            assertThat(lines, is(total));
+            assertThat(usedHeapAfterGc() - baseline, lessThan(maxHeapGrowth));
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void importShouldInsertValidRowsAndReportInvalidOnesWhenAdminLogged() throws JSONException {
+
+        String name = "Importado via NDJSON";
+        JSONObject valid = new JSONObject(postProductInstance).put("name", name);
+        String body = String.join("\n",
+                valid.toString(),
+                new JSONObject(postProductInstance).put("name", "ab").toString(),
+                new JSONObject(postProductInstance).put("description", "Lorem").toString(),
+                new JSONObject(postProductInstance).put("price", -50.0).toString(),
+                new JSONObject(postProductInstance).put("categories", new JSONArray()).toString(),
+                new JSONObject(postProductInstance).put("categories", new JSONArray().put(new JSONObject().put("id", 1000))).toString());
+
+        given().spec(ApiSpecs.bearer(adminToken)).contentType("application/x-ndjson").body(body.getBytes(StandardCharsets.UTF_8))
+                .post("/products/import").then().statusCode(200)
+                .body("total", is(6))
+                .body("imported", is(1))
+                .body("failed", is(5))
+                .body("failures.index", contains(1, 2, 3, 4, 5))
+                .body("failures.status", contains(422, 422, 422, 422, 404))
+                .body("failures[0].error.errors.message", hasItem("Nome precisar ter de 3 a 80 caracteres"))
+                .body("failures[1].error.errors.message", hasItem("Descrição precisa ter no mínimo 10 caracteres"))
+                .body("failures[2].error.errors.message", hasItem("O preço deve ser positivo"))
+                .body("failures[3].error.errors.message", hasItem("Deve ter pelo menos uma categoria"))
+                .body("failures[4].error.error", equalTo("Categoria não encontrada"));
+
+        given().spec(ApiSpecs.anonymous()).queryParam("name", name).get("/products").then().statusCode(200)
+                .body("content.name", hasItem(name));
+    }
+
+    @Test
+    public void importShouldAcceptJsonArrayAndReportMalformedRow() {
+
+        String row = new JSONObject(postProductInstance).toString();
+
+        given().spec(ApiSpecs.json(adminToken)).body("[" + row + "," + row + "]")
+                .post("/products/import").then().statusCode(200)
+                .body("imported", is(2))
+                .body("failures", empty());
+
+        given().spec(ApiSpecs.bearer(adminToken)).contentType("application/x-ndjson").body((row + "\n{\"name\": ").getBytes(StandardCharsets.UTF_8))
+                .post("/products/import").then().statusCode(200)
+                .body("imported", is(1))
+                .body("failures.index", contains(1))
+                .body("failures[0].status", is(400));
+    }
+
+    @Test
+    public void importShouldRejectOnlyRowsWithMismatchedValues() throws JSONException {
+
+        String row = new JSONObject(postProductInstance).toString();
+        String body = String.join("\n",
+                row,
+                new JSONObject(postProductInstance).put("price", "abc").toString(),
+                new JSONObject(postProductInstance).put("categories", "nenhuma").toString(),
+                row);
+
+        given().spec(ApiSpecs.bearer(adminToken)).contentType("application/x-ndjson").body(body.getBytes(StandardCharsets.UTF_8))
+                .post("/products/import").then().statusCode(200)
+                .body("total", is(4))
+                .body("imported", is(2))
+                .body("failures.index", contains(1, 2))
+                .body("failures.status", contains(400, 400))
+                .body("failures[0].error.error", equalTo("Valor inválido para o campo price na linha 2"))
+                .body("failures[1].error.error", equalTo("Valor inválido para o campo categories na linha 3"));
+    }
+
+    @Test
+    public void importShouldReturnForbiddenWhenClientLogged() {
+
+        given().spec(ApiSpecs.json(clientToken)).body("[]")
+                .post("/products/import").then().statusCode(403);
+    }
+
+    @Test
+    public void importShouldReportRowIndexesAcrossBatches() throws JSONException {
+
+        // More rows than products.import.batch-size; only the first row of each batch is valid,
+        // so a run against a shared server adds two products.
+        int total = 1200;
+        StringBuilder body = new StringBuilder();
+        JSONObject row = new JSONObject(postProductInstance);
+        for (int i = 0; i < total; i++) {
+            body.append(row.put("name", i % 1000 == 0 ? "Produto em lote " + i : "ab")).append('\n');
+        }
+
+        given().spec(ApiSpecs.bearer(adminToken)).contentType("application/x-ndjson").body(body.toString().getBytes(StandardCharsets.UTF_8))
+                .post("/products/import").then().statusCode(200)
+                .body("total", is(total))
+                .body("imported", is(2))
+                .body("failed", is(total - 2))
+                .body("failures[998].index", is(999))
+                .body("failures[999].index", is(1001))
+                .body("failures[-1].index", is(total - 1))
+                .body("failures[999].error.errors.message", hasItem("Nome precisar ter de 3 a 80 caracteres"));
+    }
+
+    @Test
+    @Tag("perf")
+    public void importShouldInsertHundredThousandProductsWithinSeconds() throws JSONException {
+
+        int total = Integer.getInteger("ra.import.products", 100_000);
+        long maxMillis = Long.getLong("ra.import.maxSeconds", 30) * 1000;
+
+        StringBuilder body = new StringBuilder();
+        JSONObject row = new JSONObject(postProductInstance);
+        for (int i = 0; i < total; i++) {
+            body.append(row.put("name", "Produto importado " + i)).append('\n');
+        }
+
+        // A private stand-in keeps the imported catalog away from the suites sharing the default server.
+        ConfigurableApplicationContext server = StandInServer.startIsolated();
+        try {
+            String baseUri = StandInServer.baseUri(server);
+            String token = given().baseUri(baseUri).auth().preemptive().basic("myclientid", "myclientsecret")
+                    .formParam("grant_type", "password")
+                    .formParam("username", adminUsername)
+                    .formParam("password", adminPassword)
+                    .post("/oauth2/token").then().statusCode(200)
+                    .extract().path("access_token");
+
+            long start = System.nanoTime();
+            given().baseUri(baseUri).header("Authorization", "Bearer " + token)
+                    .contentType("application/x-ndjson").body(body.toString().getBytes(StandardCharsets.UTF_8))
+                    .post("/products/import").then().statusCode(200)
+                    .body("imported", is(total))
+                    .body("failed", is(0));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(elapsedMillis, lessThan(maxMillis));
+            given().baseUri(baseUri).queryParam("name", "Produto importado " + (total - 1)).get("/products").then()
+                    .statusCode(200)
+                    .body("totalElements", is(1));
+        } finally {
+            server.close();
+        }
+    }
+
+    private static byte[] decode(String coding, byte[] body) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        try (InputStream decoded = coding.equals("gzip") ? new GZIPInputStream(in) : new InflaterInputStream(in)) {
+            return decoded.readAllBytes();
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private List<Integer> allProductIds() {
+        return given().spec(ApiSpecs.anonymous()).get("/products?size=1000").then().statusCode(200)
+                .extract().jsonPath().getList("content.id", Integer.class);
+    }
+
+    // Follows nextCursor until the last page; the optional action runs once after the first page.
+    private List<Integer> walkByCursor(int size, Runnable afterFirstPage) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            JsonPath page = given().spec(ApiSpecs.anonymous())
+                    .queryParam("cursor", cursor)
+                    .queryParam("size", size)
+                    .get("/products").then().statusCode(200)
+                    .body("content.size()", lessThanOrEqualTo(size))
+                    .extract().jsonPath();
+            ids.addAll(page.getList("content.id", Integer.class));
+            cursor = page.getString("nextCursor");
+            if (afterFirstPage != null) {
+                afterFirstPage.run();
+                afterFirstPage = null;
+            }
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static void assertStrictlyAscending(List<Integer> ids) {
+        assertThat(new HashSet<>(ids).size(), is(ids.size()));
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i), greaterThan(ids.get(i - 1)));
+        }
     }
 
     @Test
@@ -124,8 +651,8 @@ public class ProductControllerRA {
 
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(201)
                 .body("name", equalTo("Meu produto"))
                 .body("price", is(50.0F))
@@ -139,20 +666,41 @@ public class ProductControllerRA {
         postProductInstance.put("name", "ab");
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(422)
                 .body("errors.message[0]", equalTo("Nome precisar ter de 3 a 80 caracteres"));
     }
 
+    @Test
+    public void insertShouldBeReportedInPrometheusMetricsWhenRejected(){
+
+        assumeFalse(RecordReplay.replaying(), "server metrics are not replayed from the tape");
+        postProductInstance.put("name", "ab");
+        JSONObject newProduct = new JSONObject(postProductInstance);
+
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
+                .when().post("/products").then().statusCode(422)
+                .header("Server-Timing", startsWith("app;dur="));
+        given().spec(ApiSpecs.json())
+                .body(newProduct)
+                .when().post("/products").then().statusCode(401);
+
+        given().spec(ApiSpecs.anonymous()).get("/actuator/prometheus").then().statusCode(200)
+                .body(containsString("dscommerce_validation_failures_total{field=\"name\",message=\"Nome precisar ter de 3 a 80 caracteres\"}"))
+                .body(containsString("dscommerce_security_rejections_total{reason=\"Full authentication is required to access this resource\",status=\"401\"}"))
+                .body(matchesPattern("(?s).*http_server_requests_seconds_bucket\\{[^}]*method=\"POST\"[^}]*role=\"admin\",status=\"422\",uri=\"/products\"[^}]*}.*"));
+    }
+
     @Test
     public void insertShouldReturnUnprocessableEntityWhenAdminLoggedAndDescription(){
 
         postProductInstance.put("description", "ab");
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(422)
                 .body("errors.message[0]", equalTo("Descrição precisa ter no mínimo 10 caracteres"));
     }
@@ -163,8 +711,8 @@ public class ProductControllerRA {
         postProductInstance.put("price", -50.0);
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(422)
                 .body("errors.message[0]", equalTo("O preço deve ser positivo"));
     }
@@ -175,8 +723,8 @@ public class ProductControllerRA {
         postProductInstance.put("price", 0.0);
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(422)
                 .body("errors.message[0]", equalTo("O preço deve ser positivo"));
     }
@@ -187,8 +735,8 @@ public class ProductControllerRA {
         postProductInstance.put("categories", null);
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + adminToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(adminToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(422)
                 .body("errors.message[0]", equalTo("Deve ter pelo menos uma categoria"));
     }
@@ -198,8 +746,8 @@ public class ProductControllerRA {
 
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + clientToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(clientToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(403);
     }
 
@@ -208,8 +756,8 @@ public class ProductControllerRA {
 
         JSONObject newProduct = new JSONObject(postProductInstance);
 
-        given().header("Content-type", "application/json").header("Authorization", "Bearer " + clientToken)
-                .body(newProduct).contentType(ContentType.JSON).accept(ContentType.JSON)
+        given().spec(ApiSpecs.json(clientToken))
+                .body(newProduct)
                 .when().post("/products").then().statusCode(401);
     }
 
@@ -218,9 +766,35 @@ public class ProductControllerRA {
 
         existingProductId = 25L;
 
-        given().header("Authorization", "Bearer " + adminToken)
+        given().spec(ApiSpecs.bearer(adminToken))
+                .when().delete("/products/{id}", existingProductId)
+                .then().statusCode(204);
+    }
+
+    @Test
+    public void deleteShouldOnlyAffectTheDatasetOfTheTest(){
+
+        assumeTrue(DatasetExtension.current() != null, "tests are not running in forked datasets");
+        existingProductId = 25L;
+
+        given().spec(ApiSpecs.bearer(adminToken))
                 .when().delete("/products/{id}", existingProductId)
                 .then().statusCode(204);
+        given().spec(ApiSpecs.anonymous()).get("/products/{id}", existingProductId).then().statusCode(404);
+
+        // A second fork is taken from the shared data, which never saw the delete.
+        String other = given().spec(ApiSpecs.bearer(adminToken))
+                .when().post("/datasets").then().statusCode(201)
+                .extract().path("id");
+        given().spec(ApiSpecs.anonymous()).header("X-Dataset", other)
+                .get("/products/{id}", existingProductId).then().statusCode(200)
+                .body("id", is(25));
+
+        given().spec(ApiSpecs.bearer(adminToken))
+                .when().delete("/datasets/{id}", other).then().statusCode(204);
+        given().spec(ApiSpecs.anonymous()).header("X-Dataset", other)
+                .get("/products/{id}", existingProductId).then().statusCode(404)
+                .body("error", equalTo("Dataset não encontrado"));
     }
 
     @Test
@@ -228,7 +802,7 @@ public class ProductControllerRA {
 
         nonExistingProductId = 100L;
 
-        given().header("Authorization", "Bearer " + adminToken)
+        given().spec(ApiSpecs.bearer(adminToken))
                 .when().delete("/products/{id}", nonExistingProductId)
                 .then().statusCode(404);
     }
@@ -238,7 +812,7 @@ public class ProductControllerRA {
 
         dependentProductId = 3L;
 
-        given().header("Authorization", "Bearer " + adminToken)
+        given().spec(ApiSpecs.bearer(adminToken))
                 .when().delete("/products/{id}", dependentProductId)
                 .then().statusCode(400)
                 .body("error", equalTo("Recurso não encontrado"))
@@ -250,7 +824,7 @@ public class ProductControllerRA {
 
         existingProductId = 25L;
 
-        given().header("Authorization", "Bearer " + clientToken)
+        given().spec(ApiSpecs.bearer(clientToken))
                 .when().delete("/products/{id}", existingProductId)
                 .then().statusCode(403);
     }
@@ -260,7 +834,7 @@ public class ProductControllerRA {
 
         existingProductId = 25L;
 
-        given().header("Authorization", "Bearer " + invalidToken)
+        given().spec(ApiSpecs.bearer(invalidToken))
                 .when().delete("/products/{id}", existingProductId)
                 .then().statusCode(401);
     }
@@ -271,10 +845,7 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
 		.when()
 			.put("/products/{id}", existingProductId)
@@ -293,10 +864,7 @@ public class ProductControllerRA {
 		nonExistingProductId = 100L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
 		.when()
 			.put("/products/{id}", nonExistingProductId)
@@ -313,11 +881,8 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
 		.when()
 			.put("/products/{id}", existingProductId)
 		.then()
@@ -331,11 +896,8 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
 		.when()
 			.put("/products/{id}", existingProductId)
 		.then()
@@ -349,11 +911,8 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
 		.when()
 			.put("/products/{id}", existingProductId)
 		.then()
@@ -367,11 +926,8 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
 		.when()
 			.put("/products/{id}", existingProductId)
 		.then()
@@ -385,11 +941,8 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
+			.spec(ApiSpecs.json(adminToken))
 			.body(product)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
 			.log()
 			.all()
 		.when()
@@ -404,10 +957,7 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + clientToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(clientToken))
 			.body(product)
 		.when()
 			.put("/products/{id}", existingProductId)
@@ -421,10 +971,7 @@ public class ProductControllerRA {
 		existingProductId = 10L;
 		
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + invalidToken)
-			.contentType(ContentType.JSON)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(invalidToken))
 			.body(product)
 		.when()
 			.put("/products/{id}", existingProductId)
@@ -1,18 +1,20 @@
 package com.devsuperior.dscommerce.controllers;
 
-import static io.restassured.RestAssured.baseURI;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.everyItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
 import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.devsuperior.dscommerce.tests.ApiSpecs;
 import com.devsuperior.dscommerce.tests.TokenUtil;
 
-import io.restassured.http.ContentType;
 
 public class UserControllerRA {
 	
@@ -21,7 +23,6 @@ public class UserControllerRA {
 	
 	@BeforeEach
 	public void setup() throws JSONException {
-		baseURI = "http://localhost:8080";
 		
 		clientUsername = "maria@gmail.com";
 		clientPassword = "123456";
@@ -36,9 +37,7 @@ public class UserControllerRA {
 	@Test
 	public void getMeShouldReturnUserWhenAdminLogged() throws JSONException {
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + adminToken)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(adminToken))
 		.when()
 			.get("/users/me")
 		.then()
@@ -54,9 +53,7 @@ public class UserControllerRA {
 	@Test
 	public void getMeShouldReturnUserWhenClientLogged() throws JSONException {
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + clientToken)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(clientToken))
 		.when()
 			.get("/users/me")
 		.then()
@@ -72,13 +69,69 @@ public class UserControllerRA {
 	@Test
 	public void getMeShouldReturnUnauthorizedWhenInvalidToken() throws JSONException {
 		given()
-			.header("Content-type", "application/json")
-			.header("Authorization", "Bearer " + invalidToken)
-			.accept(ContentType.JSON)
+			.spec(ApiSpecs.json(invalidToken))
 		.when()
 			.get("/users/me")
 		.then()
 			.statusCode(401);			
 	}
-}
 
+	@Test
+	public void getMeShouldReturnUnauthorizedWhenTokenIsTamperedAfterBeingAccepted() throws JSONException {
+		given().spec(ApiSpecs.json(clientToken)).get("/users/me").then().statusCode(200);
+
+		// the client's signature over the admin's claims, and the admin's token with one signature character changed
+		String[] client = clientToken.split("\\.");
+		String[] admin = adminToken.split("\\.");
+		String impersonating = client[0] + "." + admin[1] + "." + client[2];
+		int at = adminToken.length() - 5;
+		String flipped = adminToken.substring(0, at) + (adminToken.charAt(at) == 'A' ? 'B' : 'A') + adminToken.substring(at + 1);
+
+		for (String tampered : new String[] { impersonating, flipped }) {
+			given()
+				.spec(ApiSpecs.json(tampered))
+			.when()
+				.get("/users/me")
+			.then()
+				.statusCode(401);
+		}
+	}
+
+	@Test
+	public void findMyOrdersShouldReturnOnlyOwnOrdersWhenClientLogged() throws JSONException {
+		given()
+			.spec(ApiSpecs.json(clientToken))
+		.when()
+			.get("/users/me/orders")
+		.then()
+			.statusCode(200)
+			.body("content.id", hasItems(1, 3))
+			.body("content.id", not(hasItems(2)))
+			.body("content.client.name", everyItem(equalTo("Maria Brown")))
+			.body("totalElements", greaterThanOrEqualTo(2));
+	}
+
+	@Test
+	public void findMyOrdersShouldReturnPagedOrders() throws JSONException {
+		given()
+			.spec(ApiSpecs.json(clientToken))
+		.when()
+			.get("/users/me/orders?page=1&size=1")
+		.then()
+			.statusCode(200)
+			.body("content.size()", is(1))
+			.body("content[0].id", is(3))
+			.body("number", is(1))
+			.body("size", is(1));
+	}
+
+	@Test
+	public void findMyOrdersShouldReturnUnauthorizedWhenInvalidToken() throws JSONException {
+		given()
+			.spec(ApiSpecs.json(invalidToken))
+		.when()
+			.get("/users/me/orders")
+		.then()
+			.statusCode(401);
+	}
+}
@@ -0,0 +1,143 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.io.IOException;
+
+import org.json.JSONObject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+
+/**
+ * Shared request and response specifications for the RA suites.
+ * <p>
+ * The specifications are built once and never mutated afterwards, so they can be used from
+ * any number of test threads. The target server is read from the {@code dscommerce.baseUri}
+ * system property instead of the global {@code RestAssured.baseURI}, or from the in-process
+ * {@link StandInServer} when {@code dscommerce.standin} is set. Every request is timed by
+ * {@link RouteTimings}, except those made through {@link #untimedJson(String)}, can be
+ * recorded or replayed by {@link RecordReplay}, and is sent to the data fork of the running test
+ * when its class uses {@link DatasetExtension}.
+ */
+public final class ApiSpecs {
+
+    public static final String BASE_URI = Boolean.getBoolean("dscommerce.standin")
+            ? StandInServer.start()
+            : System.getProperty("dscommerce.baseUri", "http://localhost:8080");
+
+    // Request bodies built with org.json are written as-is instead of being bean-serialized by Jackson.
+    // Requests share the keep-alive connections of PooledHttpClient.
+    private static final RestAssuredConfig CONFIG = RestAssuredConfig.config().objectMapperConfig(
+            ObjectMapperConfig.objectMapperConfig().jackson2ObjectMapperFactory((type, charset) -> new ObjectMapper()
+                    .findAndRegisterModules()
+                    .registerModule(new SimpleModule().addSerializer(JSONObject.class, new JSONObjectSerializer()))))
+            .httpClient(PooledHttpClient.config());
+
+    private static final RequestSpecification UNTIMED = new RequestSpecBuilder()
+            .setBaseUri(BASE_URI)
+            .setConfig(CONFIG)
+            .addFilter(DatasetExtension.filter())
+            .addFilter(RecordReplay.filter())
+            .build();
+
+    // RestAssured installs its content decoders on the HTTP client, so undecoded requests get a
+    // client of their own instead of reconfiguring the shared pooled one.
+    private static final RequestSpecification UNDECODED = new RequestSpecBuilder()
+            .setBaseUri(BASE_URI)
+            .setConfig(CONFIG.httpClient(HttpClientConfig.httpClientConfig())
+                    .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+            .addFilter(DatasetExtension.filter())
+            .addFilter(RecordReplay.filter())
+            .addFilter(RouteTimings.filter())
+            .build();
+
+    private static final RequestSpecification ANONYMOUS = new RequestSpecBuilder()
+            .addRequestSpecification(UNTIMED)
+            .addFilter(RouteTimings.filter())
+            .build();
+
+    private static final RequestSpecification JSON = new RequestSpecBuilder()
+            .addRequestSpecification(ANONYMOUS)
+            .setContentType(ContentType.JSON)
+            .setAccept(ContentType.JSON)
+            .build();
+
+    private ApiSpecs() {
+    }
+
+    /** Requests without credentials or content negotiation. */
+    public static RequestSpecification anonymous() {
+        return ANONYMOUS;
+    }
+
+    /**
+     * Requests without credentials whose bodies are returned exactly as sent, still compressed
+     * when the server applied a {@code Content-Encoding}.
+     */
+    public static RequestSpecification undecoded() {
+        return UNDECODED;
+    }
+
+    /** JSON requests without credentials. */
+    public static RequestSpecification json() {
+        return JSON;
+    }
+
+    /** JSON requests authenticated with the given bearer token. */
+    public static RequestSpecification json(String token) {
+        return new RequestSpecBuilder()
+                .addRequestSpecification(JSON)
+                .addHeader("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    /** Requests authenticated with the given bearer token and no body. */
+    public static RequestSpecification bearer(String token) {
+        return new RequestSpecBuilder()
+                .addRequestSpecification(ANONYMOUS)
+                .addHeader("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    /**
+     * JSON requests authenticated with the given bearer token that are not recorded by
+     * {@link RouteTimings}. Meant for stress tests, whose deliberately saturated requests would
+     * otherwise count against the per-route latency budgets.
+     */
+    public static RequestSpecification untimedJson(String token) {
+        return new RequestSpecBuilder()
+                .addRequestSpecification(UNTIMED)
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON)
+                .addHeader("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    /** Successful JSON responses with the given status. */
+    public static ResponseSpecification jsonResponse(int statusCode) {
+        return new ResponseSpecBuilder()
+                .expectStatusCode(statusCode)
+                .expectContentType(ContentType.JSON)
+                .build();
+    }
+
+    private static class JSONObjectSerializer extends JsonSerializer<JSONObject> {
+
+        @Override
+        public void serialize(JSONObject value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(value.toString());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.devsuperior.dscommerce.tests;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import io.restassured.filter.Filter;
+
+/**
+ * Runs each test of the class in its own copy-on-write fork of the server's data, so tests that
+ * insert, update or delete always start from the seed data and can run in any order, in
+ * parallel, and any number of times against the same server.
+ * <p>
+ * Before each test a fork is created with {@code POST /datasets}; {@link ApiSpecs} then sends
+ * its id in the {@code X-Dataset} header of every request made by the test's thread. Work the
+ * test hands to other threads has to be wrapped with {@link #inCurrentDataset(Callable)}; pool
+ * threads would otherwise keep a fork id after its test dropped it. The fork is dropped after the
+ * test.
+ * <p>
+ * Only this application serves {@code /datasets}, so forking is on by default just with the
+ * {@link StandInServer}; against an external server it takes {@code -Dra.datasets=true}, and
+ * {@code -Dra.datasets=false} turns it off with the stand-in. Always off while replaying a
+ * {@link RecordReplay} tape.
+ */
+public class DatasetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final String HEADER = "X-Dataset";
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty("ra.datasets", System.getProperty("dscommerce.standin", "false")))
+            && !RecordReplay.replaying();
+
+    // Seed administrator allowed to create and drop forks.
+    private static final String ADMIN_USERNAME = "alex@gmail.com";
+    private static final String ADMIN_PASSWORD = "123456";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static final Filter FILTER = (requestSpec, responseSpec, ctx) -> {
+        String dataset = CURRENT.get();
+        if (dataset != null && !requestSpec.getHeaders().hasHeaderWithName(HEADER)) {
+            requestSpec.header(HEADER, dataset);
+        }
+        return ctx.next(requestSpec, responseSpec);
+    };
+
+    /** Id of the fork the current test runs in, or null. */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /** Wraps {@code task} so it runs in the current test's fork on whichever thread executes it. */
+    public static <T> Callable<T> inCurrentDataset(Callable<T> task) {
+        String dataset = CURRENT.get();
+        return () -> {
+            String previous = CURRENT.get();
+            set(dataset);
+            try {
+                return task.call();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    private static void set(String dataset) {
+        if (dataset == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(dataset);
+        }
+    }
+
+    /** Adds the header of the current test's fork, if any. */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!ENABLED) {
+            return;
+        }
+        String id = given().spec(ApiSpecs.untimedJson(adminToken()))
+                .post("/datasets").then().statusCode(201)
+                .extract().path("id");
+        CURRENT.set(id);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        String id = CURRENT.get();
+        if (id == null) {
+            return;
+        }
+        CURRENT.remove();
+        given().spec(ApiSpecs.untimedJson(adminToken()))
+                .delete("/datasets/{id}", id).then().statusCode(204);
+    }
+
+    private static String adminToken() {
+        return TokenUtil.obtainAccessToken(ADMIN_USERNAME, ADMIN_PASSWORD);
+    }
+}
@@ -0,0 +1,86 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Compares the timings collected by {@link RouteTimings} with {@link LatencyBudgets} once the
+ * whole test run has finished, and fails the run when a budget is exceeded. Budgets whose route
+ * has too few samples for the percentile, warm-up requests aside, are enforced on the median and
+ * listed.
+ * <p>
+ * Registered for every test class through JUnit extension auto-detection. Set
+ * {@code latency.budgets.enforce=false} to only print the report.
+ */
+public class LatencyBudgetExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencyBudgetExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(BudgetCheck.class);
+    }
+
+    static class BudgetCheck implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        public void close() {
+            Map<String, Histogram> timings = RouteTimings.snapshot();
+            if (timings.isEmpty()) {
+                return;
+            }
+            printTimings(timings);
+            printSplit(RouteTimings.serverSnapshot(), RouteTimings.networkSnapshot());
+            PooledHttpClient.printStatistics();
+
+            LatencyBudgets budgets = LatencyBudgets.load();
+            List<LatencyBudgets.Undersampled> undersampled = budgets.undersampled(timings);
+            if (!undersampled.isEmpty()) {
+                StringBuilder warning = new StringBuilder("Latency budgets with too few samples for their percentile:");
+                undersampled.forEach(u -> warning.append(System.lineSeparator()).append("  ").append(u));
+                System.out.println(warning);
+            }
+            List<LatencyBudgets.Violation> violations = budgets.check(timings);
+            if (violations.isEmpty()) {
+                return;
+            }
+            StringBuilder report = new StringBuilder("Latency budgets exceeded:");
+            violations.forEach(v -> report.append(System.lineSeparator()).append("  ").append(v));
+            System.out.println(report);
+            if (Boolean.parseBoolean(System.getProperty("latency.budgets.enforce", "true"))) {
+                throw new AssertionError(report.toString());
+            }
+        }
+
+        private static void printTimings(Map<String, Histogram> timings) {
+            int width = width(timings);
+            System.out.printf("%-" + width + "s %8s %9s %9s %9s %9s%n", "route", "requests", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            timings.forEach((route, h) -> System.out.printf("%-" + width + "s %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    route, h.getTotalCount(), h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0));
+        }
+
+        private static int width(Map<String, Histogram> timings) {
+            return Math.max(28, timings.keySet().stream().mapToInt(String::length).max().orElse(0));
+        }
+
+        private static void printSplit(Map<String, Histogram> server, Map<String, Histogram> network) {
+            if (server.isEmpty()) {
+                return;
+            }
+            int width = width(server);
+            System.out.printf("%-" + width + "s %13s %13s %14s %14s%n", "route", "server p50 ms", "server p99 ms",
+                    "network p50 ms", "network p99 ms");
+            server.forEach((route, s) -> {
+                Histogram n = network.get(route);
+                System.out.printf("%-" + width + "s %13.2f %13.2f %14.2f %14.2f%n", route,
+                        s.getValueAtPercentile(50) / 1000.0, s.getValueAtPercentile(99) / 1000.0,
+                        n.getValueAtPercentile(50) / 1000.0, n.getValueAtPercentile(99) / 1000.0);
+            });
+        }
+    }
+}
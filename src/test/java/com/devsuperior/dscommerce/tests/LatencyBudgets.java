@@ -0,0 +1,173 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-route latency budgets read from {@code latency-budgets.conf} on the test classpath.
+ * Each line names a route and one or more percentile limits in milliseconds:
+ * <pre>
+ * GET /products/{id}   p95=50   p99=150
+ * GET /products?name   p95=100
+ * </pre>
+ * Routes are keyed like {@link RouteTimings} keys them. A route timed with query parameters
+ * that has no line of its own is held to the budgets of its bare path, on its own samples.
+ * <p>
+ * A percentile is measured once its route has enough samples for it to be more than the
+ * slowest request: at least {@code 100 / (100 - p)} of them, 20 for p95 and 100 for p99, and
+ * never fewer than {@code latency.budgets.min-samples} (20 by default). With fewer samples the
+ * median is held to the same limit instead: it cannot be above the percentile, so a median over
+ * the budget means most requests broke it.
+ */
+public final class LatencyBudgets {
+
+    public static final String RESOURCE = "latency-budgets.conf";
+
+    private static final int MIN_SAMPLES = Integer.getInteger("latency.budgets.min-samples", 20);
+
+    private final List<Budget> budgets;
+    private final Map<String, List<Budget>> byRoute;
+
+    private LatencyBudgets(List<Budget> budgets) {
+        this.budgets = budgets;
+        this.byRoute = budgets.stream().collect(Collectors.groupingBy(Budget::route));
+    }
+
+    public static LatencyBudgets load() {
+        InputStream in = LatencyBudgets.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (in == null) {
+            return new LatencyBudgets(List.of());
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<Budget> budgets = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                budgets.addAll(parse(line));
+            }
+            return new LatencyBudgets(budgets);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + RESOURCE, e);
+        }
+    }
+
+    static List<Budget> parse(String line) {
+        String[] tokens = line.split("\\s+");
+        if (tokens.length < 3) {
+            throw new IllegalArgumentException("Expected '<METHOD> <path> pNN=<millis> ...' but got: " + line);
+        }
+        String route = tokens[0] + " " + tokens[1];
+        List<Budget> result = new ArrayList<>();
+        for (int i = 2; i < tokens.length; i++) {
+            String[] limit = tokens[i].split("=");
+            if (limit.length != 2 || !limit[0].startsWith("p")) {
+                throw new IllegalArgumentException("Invalid budget '" + tokens[i] + "' for " + route);
+            }
+            double percentile = Double.parseDouble(limit[0].substring(1));
+            double millis = Double.parseDouble(limit[1].replace("ms", ""));
+            result.add(new Budget(route, percentile, millis));
+        }
+        return result;
+    }
+
+    /**
+     * Checks every timed route against its budgets, on the percentile or, for routes with too few
+     * samples, on the median; see {@link #undersampled(Map)} for which were checked on the median.
+     */
+    public List<Violation> check(Map<String, Histogram> timings) {
+        List<Violation> violations = new ArrayList<>();
+        timings.forEach((route, histogram) -> {
+            for (Budget budget : budgetsFor(route)) {
+                long samples = histogram.getTotalCount();
+                if (samples == 0) {
+                    continue;
+                }
+                double checked = samples < budget.minSamples() ? 50 : budget.percentile();
+                double actual = histogram.getValueAtPercentile(checked) / 1000.0;
+                if (actual > budget.maxMillis()) {
+                    violations.add(new Violation(route, budget, checked, actual, samples));
+                }
+            }
+        });
+        return violations;
+    }
+
+    /** Timed routes with too few samples for some of their percentiles, checked on the median. */
+    public List<Undersampled> undersampled(Map<String, Histogram> timings) {
+        List<Undersampled> result = new ArrayList<>();
+        timings.forEach((route, histogram) -> {
+            long samples = histogram.getTotalCount();
+            List<Budget> onMedian = budgetsFor(route).stream()
+                    .filter(budget -> samples > 0 && samples < budget.minSamples())
+                    .toList();
+            if (!onMedian.isEmpty()) {
+                result.add(new Undersampled(route, onMedian, samples));
+            }
+        });
+        return result;
+    }
+
+    /** The budgets of {@code route}, or those of its bare path when it has none of its own. */
+    List<Budget> budgetsFor(String route) {
+        List<Budget> own = byRoute.get(route);
+        if (own != null) {
+            return own;
+        }
+        int query = route.indexOf('?');
+        return query < 0 ? List.of() : byRoute.getOrDefault(route.substring(0, query), List.of());
+    }
+
+    public List<Budget> budgets() {
+        return budgets;
+    }
+
+    public record Budget(String route, double percentile, double maxMillis) {
+
+        /** Samples needed before the percentile is anything other than the slowest request. */
+        public long minSamples() {
+            return Math.max(MIN_SAMPLES, (long) Math.ceil(100 / (100 - percentile)));
+        }
+    }
+
+    /** {@code checkedPercentile} is the budget's own percentile, or 50 when the median was checked. */
+    public record Violation(String route, Budget budget, double checkedPercentile, double actualMillis, long samples) {
+
+        @Override
+        public String toString() {
+            String measured = checkedPercentile == budget.percentile()
+                    ? "p" + formatPercentile(checkedPercentile)
+                    : "median (p" + formatPercentile(budget.percentile()) + " budget)";
+            return String.format("%s %s = %.1f ms, budget %.1f ms (+%.1f ms, %.1fx) over %d requests",
+                    route, measured, actualMillis, budget.maxMillis(),
+                    actualMillis - budget.maxMillis(), actualMillis / budget.maxMillis(), samples);
+        }
+    }
+
+    public record Undersampled(String route, List<Budget> budgets, long samples) {
+
+        @Override
+        public String toString() {
+            String percentiles = budgets.stream()
+                    .map(budget -> "p" + formatPercentile(budget.percentile()) + " (" + budget.minSamples() + " needed)")
+                    .collect(Collectors.joining(", "));
+            return String.format("%s: %d requests, %s checked on the median", route, samples, percentiles);
+        }
+    }
+
+    static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,159 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.InetAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import io.restassured.config.HttpClientConfig;
+
+/**
+ * One keep-alive connection pool shared by every request made through {@link ApiSpecs}, so the
+ * suites stop opening a new TCP connection, and burning an ephemeral port, per request.
+ * <p>
+ * Tuned with system properties: {@code ra.http.pool} ({@code false} restores RestAssured's
+ * client per request), {@code ra.http.pool.maxTotal}, {@code ra.http.pool.maxPerRoute} and
+ * {@code ra.http.pool.idleSeconds}, after which an unused connection is closed. The number of
+ * requests and of connections opened is printed with the route timings by
+ * {@link LatencyBudgetExtension}.
+ * <p>
+ * RestAssured only reads a body when something asserts on it, and a pooled connection is not
+ * released before its body is read, so the first megabyte of every body is read as soon as it
+ * arrives. Smaller bodies free their connection right away; larger ones stay streamed behind the
+ * buffered prefix and free it once read or closed. A request that cannot lease a connection
+ * within 30 s fails instead of waiting for a body nobody reads.
+ */
+@SuppressWarnings("deprecation") // RestAssured 5 still builds on the HttpClient 4.x DefaultHttpClient API
+public final class PooledHttpClient {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("ra.http.pool", "true"));
+    private static final int MAX_TOTAL = Integer.getInteger("ra.http.pool.maxTotal", 64);
+    private static final int MAX_PER_ROUTE = Integer.getInteger("ra.http.pool.maxPerRoute", 32);
+    // Below Tomcat's default keep-alive timeout of 20 s, so the client closes idle connections first.
+    private static final int IDLE_SECONDS = Integer.getInteger("ra.http.pool.idleSeconds", 15);
+    private static final int BUFFERED_BODY_LIMIT = 1024 * 1024;
+    private static final long LEASE_TIMEOUT_MILLIS = 30_000;
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder connections = new LongAdder();
+
+    private static volatile DefaultHttpClient client;
+
+    private PooledHttpClient() {
+    }
+
+    /** RestAssured client configuration: the shared pool, or the default when pooling is off. */
+    public static HttpClientConfig config() {
+        if (!ENABLED) {
+            return HttpClientConfig.httpClientConfig();
+        }
+        return HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(PooledHttpClient::client);
+    }
+
+    private static synchronized DefaultHttpClient client() {
+        if (client == null) {
+            PoolingClientConnectionManager manager = new CountingConnectionManager();
+            manager.setMaxTotal(MAX_TOTAL);
+            manager.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+
+            ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "http-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, IDLE_SECONDS / 2);
+            evictor.scheduleAtFixedRate(() -> {
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(IDLE_SECONDS, TimeUnit.SECONDS);
+            }, period, period, TimeUnit.SECONDS);
+
+            DefaultHttpClient created = new DefaultHttpClient(manager);
+            created.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, LEASE_TIMEOUT_MILLIS);
+            created.addRequestInterceptor((request, context) -> requests.increment());
+            created.addResponseInterceptor((response, context) -> readAhead(response));
+            client = created;
+        }
+        return client;
+    }
+
+    // Runs before the client decides whether the connection can be released with the response.
+    private static void readAhead(HttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null || !entity.isStreaming()) {
+            return;
+        }
+        InputStream content = entity.getContent();
+        byte[] head = content.readNBytes(BUFFERED_BODY_LIMIT);
+        AbstractHttpEntity replacement;
+        if (head.length < BUFFERED_BODY_LIMIT) {
+            replacement = new ByteArrayEntity(head);
+        }
+        else {
+            BasicHttpEntity rest = new BasicHttpEntity();
+            rest.setContent(new SequenceInputStream(new ByteArrayInputStream(head), content));
+            rest.setContentLength(entity.getContentLength());
+            rest.setChunked(entity.isChunked());
+            replacement = rest;
+        }
+        replacement.setContentType(entity.getContentType());
+        replacement.setContentEncoding(entity.getContentEncoding());
+        response.setEntity(replacement);
+    }
+
+    static void printStatistics() {
+        long requestCount = requests.sum();
+        if (requestCount == 0) {
+            return;
+        }
+        long connectionCount = connections.sum();
+        System.out.printf("HTTP pool: %d requests over %d connections (%.1f%% reused), "
+                + "max %d total / %d per route, idle connections closed after %d s%n",
+                requestCount, connectionCount, 100.0 * (requestCount - connectionCount) / requestCount,
+                MAX_TOTAL, MAX_PER_ROUTE, IDLE_SECONDS);
+    }
+
+    /** Pooling manager whose connection operator counts every connection it opens. */
+    private static class CountingConnectionManager extends PoolingClientConnectionManager {
+
+        CountingConnectionManager() {
+            super(SchemeRegistryFactory.createDefault());
+        }
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+            return new DefaultClientConnectionOperator(schemes) {
+
+                @Override
+                public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local,
+                        HttpContext context, HttpParams params) throws IOException {
+                    super.openConnection(conn, target, local, context, params);
+                    connections.increment();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the responses to the requests made through {@link ApiSpecs} into a
+ * {@link ResponseTape}, or serves them back from one without contacting the server.
+ * <p>
+ * Enabled with {@code -Dra.tape=record} or {@code -Dra.tape=replay}; the tape is
+ * {@code target/ra.tape} unless {@code ra.tape.file} says otherwise. Every request is taped
+ * unless {@code ra.tape.routes} narrows it to paths starting with one of its comma-separated
+ * prefixes; requests outside them go to the server in both modes. A request is identified by
+ * method, path, query, Authorization and Accept-Encoding headers, form parameters and body, and
+ * the n-th identical request replays the n-th recorded response, so a read that follows an update
+ * sees the updated resource. While replaying, a taped route whose request was never recorded
+ * fails its test and is listed in the report printed at the end of the run.
+ */
+public final class RecordReplay {
+
+    private static final String MODE = System.getProperty("ra.tape", "off");
+    private static final Path FILE = Path.of(System.getProperty("ra.tape.file", "target/ra.tape"));
+    private static final List<String> ROUTES = List.of(System.getProperty("ra.tape.routes", "/").split(","));
+
+    // Hop-by-hop, framing and timing headers describe the original exchange, not the response.
+    private static final List<String> SKIPPED_HEADERS = List.of("Connection", "Keep-Alive", "Transfer-Encoding",
+            "Content-Length", "Date", "Server-Timing");
+
+    private static final ConcurrentMap<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, List<ResponseTape.Recording>> recordings = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, AtomicInteger> misses = new ConcurrentHashMap<>();
+
+    private static final Filter FILTER = switch (MODE) {
+        case "record" -> new RecordingFilter();
+        case "replay" -> new ReplayingFilter(load());
+        case "off" -> (requestSpec, responseSpec, ctx) -> ctx.next(requestSpec, responseSpec);
+        default -> throw new IllegalArgumentException("ra.tape must be record, replay or off: " + MODE);
+    };
+
+    private RecordReplay() {
+    }
+
+    /** The record or replay filter; passes requests through when {@code ra.tape} is off. */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /** Whether responses come from the tape instead of a server. */
+    public static boolean replaying() {
+        return MODE.equals("replay");
+    }
+
+    /** Writes the tape when recording and prints what was recorded or missed. */
+    static void finish() {
+        if (MODE.equals("record") && !recordings.isEmpty()) {
+            try {
+                ResponseTape.write(FILE, new TreeMap<>(recordings));
+                System.out.printf("Response tape: recorded %d distinct requests to %s (%d bytes)%n",
+                        recordings.size(), FILE, Files.size(FILE));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        else if (MODE.equals("replay") && !occurrences.isEmpty()) {
+            System.out.printf("Response tape: replayed %d distinct requests from %s, %d never recorded%n",
+                    occurrences.size() - misses.size(), FILE, misses.size());
+            new TreeMap<>(misses).forEach((key, count) -> System.out.printf("  not recorded: %s (%d times)%n",
+                    key, count.get()));
+        }
+    }
+
+    private static ResponseTape load() {
+        try {
+            return ResponseTape.map(FILE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay " + FILE + "; record it first with -Dra.tape=record", e);
+        }
+    }
+
+    static boolean recorded(String path) {
+        for (String route : ROUTES) {
+            if (route.equals("/")) {
+                return true;
+            }
+            if (path.startsWith(route) && (path.length() == route.length() || path.charAt(route.length()) == '/'
+                    || path.charAt(route.length()) == '?')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@code GET /products?page=1 3f2a...}: the digest covers credentials, encodings, form parameters and body. */
+    static String key(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        String target = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String authorization = requestSpec.getHeaders().getValue("Authorization");
+        if (authorization != null) {
+            digest.update(authorization.getBytes(StandardCharsets.UTF_8));
+        }
+        String acceptEncoding = requestSpec.getHeaders().getValue("Accept-Encoding");
+        if (acceptEncoding != null) {
+            digest.update(("\n" + acceptEncoding).getBytes(StandardCharsets.UTF_8));
+        }
+        new TreeMap<>(requestSpec.getFormParams()).forEach((name, value) ->
+                digest.update((name + "=" + value + "&").getBytes(StandardCharsets.UTF_8)));
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[] bytes) {
+            digest.update(bytes);
+        }
+        else if (body != null) {
+            digest.update(body.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return requestSpec.getMethod() + " " + target + " " + HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    private static int nextOccurrence(String key) {
+        return occurrences.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+    }
+
+    // Runs last, right before the request would go on the wire, so RouteTimings still times it.
+    private abstract static class TapeFilter implements OrderedFilter {
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static class RecordingFilter extends TapeFilter {
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                FilterContext ctx) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            if (!recorded(requestSpec.getUserDefinedPath())) {
+                return response;
+            }
+            List<Header> headers = new ArrayList<>();
+            for (Header header : response.getHeaders()) {
+                if (SKIPPED_HEADERS.stream().noneMatch(header.getName()::equalsIgnoreCase)) {
+                    headers.add(header);
+                }
+            }
+            ResponseTape.Recording recording = new ResponseTape.Recording(response.getStatusCode(),
+                    response.getStatusLine(), new Headers(headers), response.asByteArray());
+            String key = key(requestSpec);
+            // Identical requests sent concurrently are recorded in the order they complete.
+            synchronized (recordings) {
+                recordings.computeIfAbsent(key, k -> new ArrayList<>()).add(recording);
+            }
+            return response;
+        }
+    }
+
+    private static class ReplayingFilter extends TapeFilter {
+
+        private final ResponseTape tape;
+
+        ReplayingFilter(ResponseTape tape) {
+            this.tape = tape;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                FilterContext ctx) {
+            if (!recorded(requestSpec.getUserDefinedPath())) {
+                return ctx.next(requestSpec, responseSpec);
+            }
+            String key = key(requestSpec);
+            ResponseTape.Recording recording = tape.get(key, nextOccurrence(key));
+            if (recording == null) {
+                misses.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                throw new AssertionError("No recorded response for " + key + " in " + FILE);
+            }
+            String contentType = recording.headers().getValue("Content-Type");
+            List<Header> headers = new ArrayList<>();
+            for (Header header : recording.headers()) {
+                if (!header.getName().equalsIgnoreCase("Content-Type")) {
+                    headers.add(header);
+                }
+            }
+            ResponseBuilder response = new ResponseBuilder()
+                    .setStatusCode(recording.statusCode())
+                    .setStatusLine(recording.statusLine())
+                    .setHeaders(new Headers(headers))
+                    .setBody(recording.body());
+            if (contentType != null) {
+                // A built response does not see the request's decoder config, so name the charset
+                // RestAssured would have decoded the live response with. setContentType also adds
+                // the header, which is why the recorded one is left out above.
+                if (!contentType.toLowerCase().contains("charset=")) {
+                    contentType += "; charset="
+                            + requestSpec.getConfig().getDecoderConfig().defaultCharsetForContentType(contentType);
+                }
+                response.setContentType(contentType);
+            }
+            return response.build();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.devsuperior.dscommerce.tests;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Writes or reports on the {@link RecordReplay} tape once the whole test run has finished.
+ * <p>
+ * Registered for every test class through JUnit extension auto-detection.
+ */
+public class RecordReplayExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RecordReplayExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(TapeFinish.class);
+    }
+
+    static class TapeFinish implements ExtensionContext.Store.CloseableResource {
+
+        @Override
+        public void close() {
+            RecordReplay.finish();
+        }
+    }
+}
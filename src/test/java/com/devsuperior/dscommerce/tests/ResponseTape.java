@@ -0,0 +1,157 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+
+/**
+ * File of recorded responses, keyed by request, that is memory-mapped when read back.
+ * <p>
+ * Layout: the magic number, then every distinct response once (status code, status line,
+ * headers, body), then the index (for each key, the offsets of its responses in the order they
+ * were recorded), and finally the offset of the index. Identical responses, such as the many
+ * conflicts of a stress test, are stored a single time. Only the index is read into the heap;
+ * bodies are copied out of the mapping when a response is served.
+ */
+public final class ResponseTape {
+
+    private static final long MAGIC = 0x5241_5441_5045_0001L; // "RATAPE" version 1
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, int[]> index;
+
+    private ResponseTape(MappedByteBuffer buffer, Map<String, int[]> index) {
+        this.buffer = buffer;
+        this.index = index;
+    }
+
+    public record Recording(int statusCode, String statusLine, Headers headers, byte[] body) {
+    }
+
+    /** Maps a tape written by {@link #write(Path, Map)}. */
+    public static ResponseTape map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 16 || buffer.getLong(0) != MAGIC) {
+            throw new IOException(file + " is not a response tape");
+        }
+        ByteBuffer in = buffer.duplicate().position((int) buffer.getLong(buffer.capacity() - 8));
+        int keys = in.getInt();
+        Map<String, int[]> index = new HashMap<>(keys * 2);
+        for (int i = 0; i < keys; i++) {
+            String key = readString(in);
+            int[] offsets = new int[in.getInt()];
+            for (int j = 0; j < offsets.length; j++) {
+                offsets[j] = in.getInt();
+            }
+            index.put(key, offsets);
+        }
+        return new ResponseTape(buffer, index);
+    }
+
+    /**
+     * The {@code occurrence}-th response recorded for {@code key}, counting from zero, or the
+     * last one when the request was sent fewer times while recording. Null when the key was
+     * never recorded.
+     */
+    public Recording get(String key, int occurrence) {
+        int[] offsets = index.get(key);
+        if (offsets == null) {
+            return null;
+        }
+        ByteBuffer in = buffer.duplicate().position(offsets[Math.min(occurrence, offsets.length - 1)]);
+        int statusCode = in.getInt();
+        String statusLine = readString(in);
+        List<Header> headers = new ArrayList<>();
+        for (int i = in.getShort(); i > 0; i--) {
+            headers.add(new Header(readString(in), readString(in)));
+        }
+        byte[] body = new byte[in.getInt()];
+        in.get(body);
+        return new Recording(statusCode, statusLine, new Headers(headers), body);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** Writes the responses recorded for each key, in the order they were received. */
+    public static void write(Path file, Map<String, List<Recording>> recordings) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeLong(MAGIC);
+            Map<ByteBuffer, Integer> written = new HashMap<>();
+            Map<String, int[]> index = new HashMap<>();
+            for (Map.Entry<String, List<Recording>> entry : recordings.entrySet()) {
+                List<Recording> responses = entry.getValue();
+                int[] offsets = new int[responses.size()];
+                for (int i = 0; i < offsets.length; i++) {
+                    ByteBuffer encoded = ByteBuffer.wrap(encode(responses.get(i)));
+                    Integer offset = written.get(encoded);
+                    if (offset == null) {
+                        offset = out.size();
+                        out.write(encoded.array());
+                        written.put(encoded, offset);
+                    }
+                    offsets[i] = offset;
+                }
+                index.put(entry.getKey(), offsets);
+            }
+
+            long indexOffset = out.size();
+            out.writeInt(index.size());
+            for (Map.Entry<String, int[]> entry : index.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (int offset : entry.getValue()) {
+                    out.writeInt(offset);
+                }
+            }
+            out.writeLong(indexOffset);
+        }
+    }
+
+    private static byte[] encode(Recording recording) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(recording.body().length + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(recording.statusCode());
+        writeString(out, recording.statusLine());
+        out.writeShort(recording.headers().size());
+        for (Header header : recording.headers()) {
+            writeString(out, header.getName());
+            writeString(out, header.getValue());
+        }
+        out.writeInt(recording.body().length);
+        out.write(recording.body());
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
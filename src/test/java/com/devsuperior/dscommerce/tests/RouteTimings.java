@@ -0,0 +1,152 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the latency of every request made through {@link ApiSpecs}, keyed by route
+ * template and query parameter names, such as {@code GET /products/{id}} or
+ * {@code GET /products?name&page}: a search and a plain listing take different paths through
+ * the server and are timed apart. Values are kept in microseconds.
+ * <p>
+ * When the server reports its own time in a {@code Server-Timing: app;dur=<ms>} header, the
+ * latency is also split into server time and the rest (network, connection handling and
+ * RestAssured itself), recorded per route as well.
+ * <p>
+ * The first {@code latency.budgets.warmup} requests of each route (1 by default) are left out:
+ * they pay for class loading, JIT compilation and connection set-up on both sides, and would
+ * otherwise set the high percentiles of every route that sees only a handful of requests.
+ */
+public final class RouteTimings {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int WARMUP = Integer.getInteger("latency.budgets.warmup", 1);
+
+    private static final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Histogram> serverHistograms = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Histogram> networkHistograms = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, AtomicInteger> warmupLeft = new ConcurrentHashMap<>();
+    private static final Filter FILTER = new TimingFilter();
+
+    private RouteTimings() {
+    }
+
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /** Copies of the histograms recorded so far, sorted by route. */
+    public static Map<String, Histogram> snapshot() {
+        return copy(histograms);
+    }
+
+    /** Copies of the server-side part of the latency, for routes whose responses reported it. */
+    public static Map<String, Histogram> serverSnapshot() {
+        return copy(serverHistograms);
+    }
+
+    /** Copies of the latency minus the server-side part, for routes whose responses reported it. */
+    public static Map<String, Histogram> networkSnapshot() {
+        return copy(networkHistograms);
+    }
+
+    static void record(String route, long nanos) {
+        record(histograms, route, nanos);
+    }
+
+    /** Whether this request is one of the first of its route, which are not recorded. */
+    static boolean warmingUp(String route) {
+        AtomicInteger left = warmupLeft.computeIfAbsent(route, k -> new AtomicInteger(WARMUP));
+        return left.get() > 0 && left.getAndDecrement() > 0;
+    }
+
+    private static void record(ConcurrentMap<String, Histogram> target, String route, long nanos) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+        target.computeIfAbsent(route, k -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3)).recordValue(micros);
+    }
+
+    private static Map<String, Histogram> copy(ConcurrentMap<String, Histogram> source) {
+        Map<String, Histogram> copy = new TreeMap<>();
+        source.forEach((route, histogram) -> copy.put(route, histogram.copy()));
+        return copy;
+    }
+
+    /** The {@code dur} of a {@code Server-Timing} header in nanoseconds, or -1 when absent. */
+    static long serverNanos(String serverTiming) {
+        if (serverTiming == null) {
+            return -1;
+        }
+        int start = serverTiming.indexOf("dur=");
+        if (start < 0) {
+            return -1;
+        }
+        start += 4;
+        int end = start;
+        while (end < serverTiming.length() && serverTiming.charAt(end) != ';' && serverTiming.charAt(end) != ',') {
+            end++;
+        }
+        try {
+            return (long) (Double.parseDouble(serverTiming.substring(start, end).trim()) * 1_000_000);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * {@code /products?name={productName}&page=0} and {@code /products} with query parameters
+     * {@code page} and {@code name} both map to {@code GET /products?name&page}; parameter values
+     * and order do not matter.
+     */
+    static String route(String method, String userDefinedPath, Collection<String> queryParams) {
+        int query = userDefinedPath.indexOf('?');
+        String path = query < 0 ? userDefinedPath : userDefinedPath.substring(0, query);
+        TreeSet<String> names = new TreeSet<>(queryParams);
+        if (query >= 0) {
+            for (String param : userDefinedPath.substring(query + 1).split("&")) {
+                int value = param.indexOf('=');
+                names.add(value < 0 ? param : param.substring(0, value));
+            }
+        }
+        names.remove("");
+        return names.isEmpty() ? method + " " + path : method + " " + path + "?" + String.join("&", names);
+    }
+
+    private static class TimingFilter implements Filter {
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                FilterContext ctx) {
+            long start = System.nanoTime();
+            Response response = ctx.next(requestSpec, responseSpec);
+            long elapsed = System.nanoTime() - start;
+            String route = route(requestSpec.getMethod(), requestSpec.getUserDefinedPath(),
+                    requestSpec.getQueryParams().keySet());
+            if (warmingUp(route)) {
+                return response;
+            }
+            record(route, elapsed);
+            long server = serverNanos(response.getHeader("Server-Timing"));
+            if (server >= 0) {
+                record(serverHistograms, route, server);
+                record(networkHistograms, route, Math.max(elapsed - server, 0));
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscommerce.tests;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.devsuperior.dscommerce.DscommerceRestassuredApplication;
+
+/**
+ * Boots the in-memory DSCommerce stand-in inside the test JVM on a random port, so the RA
+ * suites can run without an external server. Enabled with {@code -Ddscommerce.standin=true}.
+ * The product cache runs in verify mode, so stale reads show up in its statistics.
+ */
+public final class StandInServer {
+
+    private static String baseUri;
+
+    private StandInServer() {
+    }
+
+    public static synchronized String start() {
+        if (baseUri == null) {
+            baseUri = baseUri(startIsolated());
+        }
+        return baseUri;
+    }
+
+    /**
+     * Boots a separate stand-in that only the caller talks to, for tests that load it with data
+     * the shared server should never see. The caller closes it when done.
+     */
+    public static ConfigurableApplicationContext startIsolated() {
+        return new SpringApplicationBuilder(DscommerceRestassuredApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0", "--cache.products.verify=true");
+    }
+
+    public static String baseUri(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
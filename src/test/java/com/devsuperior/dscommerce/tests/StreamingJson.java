@@ -0,0 +1,287 @@
+package com.devsuperior.dscommerce.tests;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Assertions on large JSON bodies that read the body once with a pull parser instead of building
+ * the object tree GPath works on, so memory use does not depend on the size of the response.
+ * <p>
+ * Paths are field names separated by dots, with {@code []} standing for every element of an
+ * array: {@code content[].price} is the price of every product of a page, {@code [].id} the id
+ * of every element of a top-level array. All expectations are registered first and then checked
+ * together in a single pass by {@link #verify()}; subtrees no expectation reaches into are
+ * skipped without being decoded. Numbers are reported as {@link Integer} or {@link Long} when
+ * integral and as {@link Double} otherwise.
+ *
+ * <pre>
+ * StreamingJson.of(response.asInputStream())
+ *         .every("content[].price", greaterThan(2000.0))
+ *         .contains("content[].name", "Smart TV")
+ *         .verify();
+ * </pre>
+ */
+public final class StreamingJson {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final String ELEMENT = "[]";
+
+    private final InputStream body;
+    private final List<Expectation> expectations = new ArrayList<>();
+
+    private StreamingJson(InputStream body) {
+        this.body = body;
+    }
+
+    public static StreamingJson of(InputStream body) {
+        return new StreamingJson(body);
+    }
+
+    /** Every scalar found at {@code path} must match {@code matcher}. */
+    public StreamingJson every(String path, Matcher<?> matcher) {
+        expectations.add(new Every(path, matcher));
+        return this;
+    }
+
+    /** Each of {@code values} must be found at least once at {@code path}. */
+    public StreamingJson contains(String path, Object... values) {
+        expectations.add(new Contains(path, values));
+        return this;
+    }
+
+    /** The number of values found at {@code path}, scalars or not, must match {@code matcher}. */
+    public StreamingJson count(String path, Matcher<? super Integer> matcher) {
+        expectations.add(new Count(path, matcher));
+        return this;
+    }
+
+    /**
+     * Reads the whole body, checking every expectation on the way, and closes it.
+     *
+     * @throws AssertionError listing every expectation that was not met
+     */
+    public void verify() {
+        String[] stack = new String[16];
+        try (InputStream in = body; JsonParser parser = FACTORY.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token != null) {
+                walk(parser, token, stack, 0);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        StringBuilder failures = new StringBuilder();
+        for (Expectation expectation : expectations) {
+            String failure = expectation.failure();
+            if (failure != null) {
+                failures.append(System.lineSeparator()).append(expectation.source).append(": ")
+                        .append(failure);
+            }
+        }
+        if (failures.length() > 0) {
+            throw new AssertionError("JSON body did not match:" + failures);
+        }
+    }
+
+    // The current token sits at the path stack[0..depth).
+    private void walk(JsonParser parser, JsonToken token, String[] stack, int depth) throws IOException {
+        for (Expectation expectation : expectations) {
+            if (expectation.matches(stack, depth)) {
+                expectation.accept(token, parser);
+            }
+        }
+        if (!token.isStructStart()) {
+            return;
+        }
+        if (!reachesInto(stack, depth)) {
+            parser.skipChildren();
+            return;
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                stack[depth] = parser.currentName();
+                walk(parser, parser.nextToken(), stack, depth + 1);
+            }
+        }
+        else {
+            stack[depth] = ELEMENT;
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                walk(parser, element, stack, depth + 1);
+            }
+        }
+    }
+
+    private boolean reachesInto(String[] stack, int depth) {
+        for (Expectation expectation : expectations) {
+            if (expectation.path.length > depth && expectation.startsWith(stack, depth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] parsePath(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String part : path.split("\\.")) {
+            String name = part;
+            int brackets = 0;
+            while (name.endsWith(ELEMENT)) {
+                name = name.substring(0, name.length() - 2);
+                brackets++;
+            }
+            if (!name.isEmpty()) {
+                segments.add(name);
+            }
+            else if (brackets == 0) {
+                throw new IllegalArgumentException("Empty segment in path " + path);
+            }
+            for (int i = 0; i < brackets; i++) {
+                segments.add(ELEMENT);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static Object scalar(JsonToken token, JsonParser parser) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> throw new AssertionError("Expected a scalar at " + parser.getParsingContext().pathAsPointer()
+                    + " but found " + token);
+        };
+    }
+
+    private abstract static class Expectation {
+
+        final String source;
+        final String[] path;
+
+        Expectation(String path) {
+            this.source = path;
+            this.path = parsePath(path);
+        }
+
+        boolean matches(String[] stack, int depth) {
+            return path.length == depth && startsWith(stack, depth);
+        }
+
+        boolean startsWith(String[] stack, int depth) {
+            for (int i = 0; i < depth; i++) {
+                if (!path[i].equals(stack[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        abstract void accept(JsonToken token, JsonParser parser) throws IOException;
+
+        /** Why the expectation failed, or null when it was met. */
+        abstract String failure();
+    }
+
+    private static class Every extends Expectation {
+
+        private final Matcher<?> matcher;
+        private int index;
+        private String mismatch;
+
+        Every(String path, Matcher<?> matcher) {
+            super(path);
+            this.matcher = matcher;
+        }
+
+        @Override
+        void accept(JsonToken token, JsonParser parser) throws IOException {
+            Object value = scalar(token, parser);
+            if (mismatch == null && !matcher.matches(value)) {
+                Description description = new StringDescription();
+                description.appendText("expected every value ").appendDescriptionOf(matcher)
+                        .appendText(" but value #" + index + " ");
+                matcher.describeMismatch(value, description);
+                mismatch = description.toString();
+            }
+            index++;
+        }
+
+        @Override
+        String failure() {
+            return mismatch;
+        }
+    }
+
+    private static class Contains extends Expectation {
+
+        private final Set<Object> missing = new LinkedHashSet<>();
+
+        Contains(String path, Object... values) {
+            super(path);
+            missing.addAll(Arrays.asList(values));
+        }
+
+        @Override
+        void accept(JsonToken token, JsonParser parser) throws IOException {
+            if (!missing.isEmpty()) {
+                Object value = scalar(token, parser);
+                missing.removeIf(expected -> Objects.equals(expected, value));
+            }
+        }
+
+        @Override
+        String failure() {
+            return missing.isEmpty() ? null : "expected to contain " + missing + " but did not";
+        }
+    }
+
+    private static class Count extends Expectation {
+
+        private final Matcher<? super Integer> matcher;
+        private int count;
+
+        Count(String path, Matcher<? super Integer> matcher) {
+            super(path);
+            this.matcher = matcher;
+        }
+
+        @Override
+        void accept(JsonToken token, JsonParser parser) {
+            count++;
+        }
+
+        @Override
+        String failure() {
+            if (matcher.matches(count)) {
+                return null;
+            }
+            Description description = new StringDescription();
+            description.appendText("expected a count ").appendDescriptionOf(matcher).appendText(" but ");
+            matcher.describeMismatch(count, description);
+            return description.toString();
+        }
+    }
+}
@@ -3,22 +3,135 @@ package com.devsuperior.dscommerce.tests;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
 import static io.restassured.RestAssured.*;
 
 public class TokenUtil {
 
+    private static final String CLIENT_ID = "myclientid";
+    private static final String CLIENT_SECRET = "myclientsecret";
+
+    // Used when the token response carries no expires_in.
+    private static final Duration DEFAULT_LIFETIME = Duration.ofMinutes(5);
+    // Tokens are renewed this long before they expire, capped at half their lifetime.
+    private static final Duration REFRESH_MARGIN = Duration.ofSeconds(30);
+
+    private static final ConcurrentMap<TokenKey, CompletableFuture<CachedToken>> cache = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(TokenUtil::printStatistics, "token-cache-report"));
+    }
+
+    /**
+     * Returns a bearer token for the given user, reusing a cached one while it is still fresh.
+     * Concurrent callers asking for the same user share a single request to the token endpoint.
+     */
     public static String obtainAccessToken(String username, String password){
+        TokenKey key = new TokenKey(CLIENT_ID, username, digest(password));
+        while (true) {
+            CompletableFuture<CachedToken> current = cache.get(key);
+            if (current != null && (!current.isDone() || isFresh(current))) {
+                hits.increment();
+                return current.join().value();
+            }
+            CompletableFuture<CachedToken> fetch = new CompletableFuture<>();
+            boolean installed = current == null
+                    ? cache.putIfAbsent(key, fetch) == null
+                    : cache.replace(key, current, fetch);
+            if (!installed) {
+                continue;
+            }
+            misses.increment();
+            try {
+                CachedToken token = requestToken(username, password);
+                if (token.value() == null) {
+                    cache.remove(key, fetch);
+                }
+                fetch.complete(token);
+                return token.value();
+            } catch (Throwable e) {
+                // RestAssured rethrows checked exceptions such as ConnectException undeclared
+                cache.remove(key, fetch);
+                fetch.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public static long cacheHits() {
+        return hits.sum();
+    }
+
+    public static long cacheMisses() {
+        return misses.sum();
+    }
+
+    private static boolean isFresh(CompletableFuture<CachedToken> future) {
+        if (future.isCompletedExceptionally()) {
+            return false;
+        }
+        CachedToken token = future.join();
+        return token.value() != null && Instant.now().isBefore(token.refreshAt());
+    }
+
+    private static CachedToken requestToken(String username, String password) {
+        Instant requestedAt = Instant.now();
         Response response = authRequest(username, password);
         JsonPath jsonBody = response.jsonPath();
-        return jsonBody.getString("access_token");
+        String accessToken = jsonBody.getString("access_token");
+        String expiresIn = jsonBody.getString("expires_in");
+
+        Duration lifetime = expiresIn != null ? Duration.ofSeconds(Long.parseLong(expiresIn)) : DEFAULT_LIFETIME;
+        Duration margin = REFRESH_MARGIN.compareTo(lifetime.dividedBy(2)) < 0 ? REFRESH_MARGIN : lifetime.dividedBy(2);
+        return new CachedToken(accessToken, requestedAt.plus(lifetime).minus(margin));
     }
 
     private static Response authRequest(String username, String password){
-        return given().auth().preemptive().basic("myclientid", "myclientsecret")
+        return given().spec(ApiSpecs.anonymous()).auth().preemptive().basic(CLIENT_ID, CLIENT_SECRET)
                 .contentType("application/x-www-form-urlencoded")
                 .formParam("grant_type", "password")
                 .formParam("username", username)
                 .formParam("password", password)
                 .when().post("/oauth2/token");
     }
+
+    // The key carries a digest of the password so a wrong one misses the cache and reaches the
+    // token endpoint, without the password itself being held by the cache.
+    private static String digest(String password) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(String.valueOf(password).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void printStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        if (total == 0) {
+            return;
+        }
+        System.out.printf("TokenUtil cache: %d hits, %d misses (%.1f%% hit rate)%n",
+                hitCount, missCount, 100.0 * hitCount / total);
+    }
+
+    private record TokenKey(String clientId, String username, String passwordDigest) {
+    }
+
+    private record CachedToken(String value, Instant refreshAt) {
+    }
 }
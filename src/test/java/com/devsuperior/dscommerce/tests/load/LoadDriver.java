@@ -0,0 +1,227 @@
+package com.devsuperior.dscommerce.tests.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.devsuperior.dscommerce.tests.ApiSpecs;
+
+/**
+ * Replays the RA scenarios as weighted workloads against {@code dscommerce.baseUri}.
+ * <p>
+ * Configuration comes from system properties:
+ * <ul>
+ * <li>{@code load.duration} - measured seconds (default 30)</li>
+ * <li>{@code load.warmup} - seconds run before measuring (default 5)</li>
+ * <li>{@code load.concurrency} - concurrent callers, or the in-flight limit when a rate is set (default 50)</li>
+ * <li>{@code load.rate} - target requests per second; 0 keeps {@code load.concurrency} callers busy (default 0)</li>
+ * <li>{@code load.weights} - overrides such as {@code productById=10,orderInsert=0}</li>
+ * </ul>
+ * With a target rate, latency is measured from the intended start of each request, so queueing
+ * behind a slow server shows up in the percentiles instead of lowering the offered load.
+ * Each call runs on a virtual thread when the JVM supports them (Java 21+).
+ */
+public class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    // Closed-loop calls start their clock once the fixture is ready.
+    private static final long UNSCHEDULED = Long.MIN_VALUE;
+
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final Map<Scenario, Recorder> latencies = new LinkedHashMap<>();
+    private final Map<Scenario, LongAdder> errors = new LinkedHashMap<>();
+
+    private volatile long measureFrom;
+    private volatile long measureUntil;
+
+    public LoadDriver(List<Scenario> scenarios) {
+        this.scenarios = scenarios.stream().filter(s -> s.weight() > 0).toList();
+        this.totalWeight = this.scenarios.stream().mapToInt(Scenario::weight).sum();
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("At least one scenario must have a positive weight");
+        }
+        for (Scenario scenario : this.scenarios) {
+            latencies.put(scenario, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int duration = Integer.getInteger("load.duration", 30);
+        int warmup = Integer.getInteger("load.warmup", 5);
+        int concurrency = Integer.getInteger("load.concurrency", 50);
+        int rate = Integer.getInteger("load.rate", 0);
+        List<Scenario> scenarios = applyWeights(Scenario.defaults(), System.getProperty("load.weights", ""));
+
+        System.out.printf("Load against %s: %ds (+%ds warmup), %s%n", ApiSpecs.BASE_URI, duration, warmup,
+                rate > 0 ? rate + " req/s, at most " + concurrency + " in flight" : concurrency + " concurrent callers");
+
+        LoadDriver driver = new LoadDriver(scenarios);
+        Map<Scenario, Histogram> results = driver.run(warmup, duration, concurrency, rate);
+        driver.printReport(results, duration);
+    }
+
+    public Map<Scenario, Histogram> run(int warmupSeconds, int durationSeconds, int concurrency, int rate)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService executor = newExecutor();
+        try {
+            if (rate > 0) {
+                runAtRate(executor, concurrency, rate);
+            } else {
+                for (int i = 0; i < concurrency; i++) {
+                    executor.execute(this::runClosedLoop);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Map<Scenario, Histogram> results = new LinkedHashMap<>();
+        latencies.forEach((scenario, recorder) -> results.put(scenario, recorder.getIntervalHistogram()));
+        return results;
+    }
+
+    public long errors(Scenario scenario) {
+        return errors.get(scenario).sum();
+    }
+
+    private void runClosedLoop() {
+        while (System.nanoTime() < measureUntil) {
+            execute(pick(), UNSCHEDULED);
+        }
+    }
+
+    private void runAtRate(ExecutorService executor, int maxInFlight, int rate) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (long intended = System.nanoTime(); intended < measureUntil; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            inFlight.acquire();
+            long intendedStart = intended;
+            Scenario scenario = pick();
+            executor.execute(() -> {
+                try {
+                    execute(scenario, intendedStart);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void execute(Scenario scenario, long intendedStart) {
+        boolean failed = false;
+        try {
+            Scenario.Step step = scenario.fixture().prepare();
+            if (intendedStart == UNSCHEDULED) {
+                intendedStart = System.nanoTime();
+            }
+            step.run();
+        } catch (Throwable e) {
+            failed = true;
+        }
+        long end = System.nanoTime();
+        if (intendedStart == UNSCHEDULED) {
+            intendedStart = end;
+        }
+        if (intendedStart >= measureFrom && intendedStart < measureUntil) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(end - intendedStart);
+            latencies.get(scenario).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (failed) {
+                errors.get(scenario).increment();
+            }
+        }
+    }
+
+    private Scenario pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void printReport(Map<Scenario, Histogram> results, int durationSeconds) {
+        System.out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalCount = 0;
+        for (Map.Entry<Scenario, Histogram> entry : results.entrySet()) {
+            Histogram h = entry.getValue();
+            totalCount += h.getTotalCount();
+            System.out.printf("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().endpoint(), h.getTotalCount(), errors(entry.getKey()),
+                    (double) h.getTotalCount() / durationSeconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(95)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxValue()));
+        }
+        System.out.printf("%-22s %9d %7s %9.1f%n", "total", totalCount, "", (double) totalCount / durationSeconds);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    static List<Scenario> applyWeights(List<Scenario> scenarios, String overrides) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : overrides.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] pair = entry.split("=", -1);
+            String key = pair[0].trim();
+            if (pair.length != 2 || key.isEmpty()) {
+                throw new IllegalArgumentException("load.weights entry '" + entry.trim() + "' must be <scenario>=<weight>");
+            }
+            int weight;
+            try {
+                weight = Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("load.weights entry '" + entry.trim() + "' has a non-numeric weight", e);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("load.weights entry '" + entry.trim() + "' has a negative weight");
+            }
+            if (scenarios.stream().noneMatch(s -> s.key().equals(key))) {
+                throw new IllegalArgumentException("load.weights entry '" + entry.trim() + "' names no scenario; known: "
+                        + scenarios.stream().map(Scenario::key).toList());
+            }
+            weights.put(key, weight);
+        }
+        List<Scenario> result = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            result.add(weights.containsKey(scenario.key()) ? scenario.withWeight(weights.get(scenario.key())) : scenario);
+        }
+        return result;
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
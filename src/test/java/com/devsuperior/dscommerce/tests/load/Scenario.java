@@ -0,0 +1,58 @@
+package com.devsuperior.dscommerce.tests.load;
+
+import java.util.List;
+
+import com.devsuperior.dscommerce.controllers.OrderControllerRA;
+import com.devsuperior.dscommerce.controllers.ProductControllerRA;
+import com.devsuperior.dscommerce.controllers.UserControllerRA;
+
+/**
+ * A weighted load workload backed by one of the RA test methods, so the load run asserts
+ * the same contract as the functional suite.
+ */
+public record Scenario(String key, String endpoint, int weight, Fixture fixture) {
+
+    @FunctionalInterface
+    public interface Fixture {
+        /** Prepares a fresh test instance and returns the call to be timed. */
+        Step prepare() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    public Scenario withWeight(int newWeight) {
+        return new Scenario(key, endpoint, newWeight, fixture);
+    }
+
+    public static List<Scenario> defaults() {
+        return List.of(
+                new Scenario("productById", "GET /products/{id}", 40, () -> {
+                    ProductControllerRA ra = new ProductControllerRA();
+                    ra.setUp();
+                    return ra::findByIdShouldReturnProductWhenIdExists;
+                }),
+                new Scenario("productSearch", "GET /products?name=", 20, () -> {
+                    ProductControllerRA ra = new ProductControllerRA();
+                    ra.setUp();
+                    return ra::findAllShouldReturnPageProductsWhenProductNameIsNotEmpty;
+                }),
+                new Scenario("productPage", "GET /products?page=", 15, () -> {
+                    ProductControllerRA ra = new ProductControllerRA();
+                    ra.setUp();
+                    return ra::findAllShouldReturnPageProductsWhenProductNameIsEmpty;
+                }),
+                new Scenario("orderInsert", "POST /orders", 10, () -> {
+                    OrderControllerRA ra = new OrderControllerRA();
+                    ra.setUp();
+                    return ra::insertShouldReturnOrderCreatedWhenClientLogged;
+                }),
+                new Scenario("usersMe", "GET /users/me", 15, () -> {
+                    UserControllerRA ra = new UserControllerRA();
+                    ra.setup();
+                    return ra::getMeShouldReturnUserWhenClientLogged;
+                }));
+    }
+}